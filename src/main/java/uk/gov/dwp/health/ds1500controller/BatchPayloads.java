@@ -0,0 +1,112 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.validation.InputLimits;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a batch body into the individual form payloads it carries. The body is either a JSON
+ * array of forms or NDJSON, one form per line. Each form is returned as the text it was sent as,
+ * repeated keys and all, so it can be validated exactly as a single submission would be. An array
+ * is parsed under the same {@link InputLimits} as a single form.
+ */
+public class BatchPayloads {
+  private final InputLimits inputLimits;
+  private final JsonFactory jsonFactory;
+
+  public BatchPayloads(InputLimits inputLimits) {
+    this.inputLimits = inputLimits;
+    this.jsonFactory =
+        JsonFactory.builder()
+            .streamReadConstraints(inputLimits.batchStreamReadConstraints())
+            .build();
+  }
+
+  public List<String> split(String body) throws InvalidJsonException {
+    if (body == null || body.isBlank()) {
+      throw new InvalidJsonException("Batch is empty");
+    }
+    List<String> payloads = body.stripLeading().startsWith("[") ? fromArray(body) : fromLines(body);
+    if (payloads.isEmpty()) {
+      throw new InvalidJsonException("Batch is empty");
+    }
+    return payloads;
+  }
+
+  private List<String> fromArray(String body) throws InvalidJsonException {
+    List<String> payloads = new ArrayList<>();
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      parser.nextToken();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (parser.currentToken() == null) {
+          throw new InvalidJsonException("Batch array is not closed");
+        }
+        addItem(payloads, rawValue(parser, body));
+      }
+      if (parser.nextToken() != null) {
+        throw new InvalidJsonException("Batch has content after the array");
+      }
+
+    } catch (StreamConstraintsException e) {
+      inputLimits.recordRejectedStructure();
+      throw new InvalidJsonException(e);
+
+    } catch (IOException e) {
+      throw new InvalidJsonException(e);
+    }
+    return payloads;
+  }
+
+  /**
+   * Reads past the value starting at the current token and returns its source text. Strings are
+   * read rather than skipped so that the field length limit applies to them.
+   */
+  private static String rawValue(JsonParser parser, String body)
+      throws IOException, InvalidJsonException {
+    int start = (int) parser.currentTokenLocation().getCharOffset();
+    int depth = 0;
+    JsonToken token = parser.currentToken();
+    while (true) {
+      if (token.isStructStart()) {
+        depth++;
+      } else if (token.isStructEnd()) {
+        depth--;
+      } else if (token == JsonToken.VALUE_STRING) {
+        parser.getText();
+      }
+      if (depth == 0) {
+        break;
+      }
+      token = parser.nextToken();
+      if (token == null) {
+        throw new InvalidJsonException("Batch array is not closed");
+      }
+    }
+    return body.substring(start, (int) parser.currentLocation().getCharOffset());
+  }
+
+  private List<String> fromLines(String body) throws InvalidJsonException {
+    List<String> payloads = new ArrayList<>();
+    for (String line : body.split("\\R")) {
+      if (!line.isBlank()) {
+        addItem(payloads, line);
+      }
+    }
+    return payloads;
+  }
+
+  private void addItem(List<String> payloads, String payload) throws InvalidJsonException {
+    if (payloads.size() == inputLimits.getMaxBatchItems()) {
+      throw new InvalidJsonException(
+          String.format("Batch has more than %d submissions", inputLimits.getMaxBatchItems()));
+    }
+    payloads.add(payload);
+  }
+}
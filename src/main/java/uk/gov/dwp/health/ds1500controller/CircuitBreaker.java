@@ -0,0 +1,222 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calls to a dependency that is failing or slow. The outcome of the last {@code windowSize}
+ * calls is kept; once at least {@code minimumCalls} have been seen and either the failure rate or
+ * the rate of calls slower than {@code slowCallThreshold} reaches its threshold, the breaker opens
+ * and refuses every call for {@code openDuration}. It then lets {@code halfOpenCalls} trial calls
+ * through and closes again only if they stay under both thresholds.
+ */
+public class CircuitBreaker {
+  private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  /** Breaker states, in the order of the values reported by the {@code state} gauge. */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final String name;
+  private final int failureRateThreshold;
+  private final int slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final int minimumCalls;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final Ticker ticker;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final boolean[] failedCalls;
+  private final boolean[] slowCalls;
+  private final Meter opened = new Meter();
+  private final Meter rejected = new Meter();
+
+  private State state = State.CLOSED;
+  private int recorded;
+  private int next;
+  private int failures;
+  private int slow;
+  private long openUntilNanos;
+  private int trialPermits;
+
+  public CircuitBreaker(
+      String name,
+      int failureRateThreshold,
+      int slowCallRateThreshold,
+      Duration slowCallThreshold,
+      int windowSize,
+      int minimumCalls,
+      Duration openDuration,
+      int halfOpenCalls) {
+    this(
+        name,
+        failureRateThreshold,
+        slowCallRateThreshold,
+        slowCallThreshold,
+        windowSize,
+        minimumCalls,
+        openDuration,
+        halfOpenCalls,
+        Ticker.systemTicker());
+  }
+
+  CircuitBreaker(
+      String name,
+      int failureRateThreshold,
+      int slowCallRateThreshold,
+      Duration slowCallThreshold,
+      int windowSize,
+      int minimumCalls,
+      Duration openDuration,
+      int halfOpenCalls,
+      Ticker ticker) {
+    this.name = name;
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallNanos = slowCallThreshold.toNanos();
+    this.minimumCalls = Math.min(minimumCalls, windowSize);
+    this.openNanos = openDuration.toNanos();
+    this.halfOpenCalls = Math.min(halfOpenCalls, windowSize);
+    this.ticker = ticker;
+    this.failedCalls = new boolean[windowSize];
+    this.slowCalls = new boolean[windowSize];
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(
+        MetricRegistry.name(CircuitBreaker.class, name, "state"),
+        (Gauge<Integer>) () -> getState().ordinal());
+    metrics.register(MetricRegistry.name(CircuitBreaker.class, name, "opened"), opened);
+    metrics.register(MetricRegistry.name(CircuitBreaker.class, name, "rejected"), rejected);
+  }
+
+  /**
+   * Whether a call may go ahead now. Every permitted call must be followed by {@link
+   * #releasePermission} once it is over, having reported each attempt it made at the dependency
+   * through {@link #onResult}.
+   */
+  public boolean tryAcquirePermission() {
+    lock.lock();
+    try {
+      if (state == State.OPEN && ticker.read() - openUntilNanos >= 0) {
+        transitionTo(State.HALF_OPEN);
+      }
+      if (state == State.CLOSED) {
+        return true;
+      }
+      if (state == State.HALF_OPEN && trialPermits > 0) {
+        trialPermits--;
+        return true;
+      }
+      rejected.mark();
+      return false;
+
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void releasePermission() {
+    lock.lock();
+    try {
+      if (state == State.HALF_OPEN && trialPermits < halfOpenCalls) {
+        trialPermits++;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void onResult(boolean failed, long durationNanos) {
+    lock.lock();
+    try {
+      if (state == State.OPEN) {
+        return;
+      }
+      record(failed, durationNanos >= slowCallNanos);
+
+      if (state == State.HALF_OPEN && recorded >= halfOpenCalls) {
+        transitionTo(isOverThreshold() ? State.OPEN : State.CLOSED);
+      } else if (state == State.CLOSED && recorded >= minimumCalls && isOverThreshold()) {
+        transitionTo(State.OPEN);
+      }
+
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Whole seconds until the breaker lets a trial call through, at least one. */
+  public long getRetryAfterSeconds() {
+    lock.lock();
+    try {
+      long remainingNanos = state == State.OPEN ? openUntilNanos - ticker.read() : 0;
+      long second = TimeUnit.SECONDS.toNanos(1);
+      return Math.max(1, (remainingNanos + second - 1) / second);
+
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public State getState() {
+    lock.lock();
+    try {
+      return state;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void record(boolean failed, boolean slowCall) {
+    if (recorded == failedCalls.length) {
+      failures -= failedCalls[next] ? 1 : 0;
+      slow -= slowCalls[next] ? 1 : 0;
+    } else {
+      recorded++;
+    }
+    failedCalls[next] = failed;
+    slowCalls[next] = slowCall;
+    failures += failed ? 1 : 0;
+    slow += slowCall ? 1 : 0;
+    next = (next + 1) % failedCalls.length;
+  }
+
+  private boolean isOverThreshold() {
+    return failures * 100 >= failureRateThreshold * recorded
+        || slow * 100 >= slowCallRateThreshold * recorded;
+  }
+
+  private void transitionTo(State newState) {
+    if (newState == State.OPEN) {
+      LOG.warn(
+          "Circuit breaker '{}' opened after {} failed and {} slow of the last {} calls",
+          name,
+          failures,
+          slow,
+          recorded);
+      openUntilNanos = ticker.read() + openNanos;
+      opened.mark();
+    } else {
+      LOG.info("Circuit breaker '{}' is now {}", name, newState);
+    }
+
+    state = newState;
+    trialPermits = newState == State.HALF_OPEN ? halfOpenCalls : 0;
+    recorded = 0;
+    next = 0;
+    failures = 0;
+    slow = 0;
+  }
+}
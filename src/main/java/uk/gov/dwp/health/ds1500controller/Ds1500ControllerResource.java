@@ -1,13 +1,18 @@
 package uk.gov.dwp.health.ds1500controller;
 
+import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.FormParam;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.apache.http.HttpStatus;
@@ -19,9 +24,14 @@ import uk.gov.dwp.health.crypto.exceptions.EventsMessageException;
 import uk.gov.dwp.health.ds1500controller.application.Ds1500ControllerConfiguration;
 import uk.gov.dwp.health.ds1500controller.domain.DSForm;
 import uk.gov.dwp.health.ds1500controller.domain.Ds1500Metadata;
+import uk.gov.dwp.health.ds1500controller.domain.SubmissionStatus;
 import uk.gov.dwp.health.ds1500controller.domain.Views;
 import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
 import uk.gov.dwp.health.ds1500controller.domain.exceptions.PdfRetrievalError;
+import uk.gov.dwp.health.ds1500controller.outbox.Outbox;
+import uk.gov.dwp.health.ds1500controller.outbox.OutboxEntry;
+import uk.gov.dwp.health.ds1500controller.outbox.PublishHeldBackException;
+import uk.gov.dwp.health.ds1500controller.utils.IdGenerator;
 import uk.gov.dwp.health.ds1500controller.utils.PdfRetriever;
 import uk.gov.dwp.health.messageq.amazon.sns.MessagePublisher;
 import uk.gov.dwp.health.messageq.items.event.EventMessage;
@@ -31,19 +41,42 @@ import uk.gov.dwp.regex.InvalidNinoException;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Path("/")
 public class Ds1500ControllerResource {
   private static final Logger LOG = LoggerFactory.getLogger(Ds1500ControllerResource.class);
   private static final String ERROR_MSG = "Unable to process request";
+  static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+  private static final int BATCH_PUBLISH_GROUP = 10;
   private Ds1500ControllerConfiguration controllerConfiguration;
   private MetadataBuilder metadataBuilder;
   private Ds1500JsonValidator validator;
   private MessagePublisher snsPublish;
   private PdfRetriever pdfRetriever;
   private PdfRetriever feePdfRetriever;
+  private JsonCodec jsonCodec;
+  private BatchPayloads batchPayloads;
+  private Executor publishExecutor;
+  private Outbox outbox;
+  private SubmissionStatusStore statusStore;
+  private IdempotencyStore idempotencyStore;
+  private IdGenerator idGenerator;
+  private PublishGuard publishGuard;
+  private PublishRetry publishRetry;
 
   @Inject
   public Ds1500ControllerResource(
@@ -52,97 +85,515 @@ public class Ds1500ControllerResource {
       PdfRetriever pdfRetriever,
       PdfRetriever feePdfRetriever,
       Ds1500JsonValidator validator,
-      MetadataBuilder metadataBuilder) {
+      MetadataBuilder metadataBuilder,
+      JsonCodec jsonCodec,
+      BatchPayloads batchPayloads,
+      Executor publishExecutor,
+      Outbox outbox,
+      SubmissionStatusStore statusStore,
+      IdempotencyStore idempotencyStore,
+      IdGenerator idGenerator,
+      PublishGuard publishGuard,
+      PublishRetry publishRetry) {
     this.feePdfRetriever = feePdfRetriever;
     this.snsPublish = snsPublish;
     this.metadataBuilder = metadataBuilder;
     this.controllerConfiguration = config;
     this.pdfRetriever = pdfRetriever;
     this.validator = validator;
+    this.jsonCodec = jsonCodec;
+    this.batchPayloads = batchPayloads;
+    this.publishExecutor = publishExecutor;
+    this.outbox = outbox;
+    this.statusStore = statusStore;
+    this.idempotencyStore = idempotencyStore;
+    this.idGenerator = idGenerator;
+    this.publishGuard = publishGuard;
+    this.publishRetry = publishRetry;
   }
 
+  /**
+   * Validates the submission and builds its event on the request thread, then hands the SNS
+   * publish to the publish executor so the Jetty thread is free while the network call is made.
+   * Transient SNS failures are retried there, within the publish deadline, before any error is
+   * returned. With the outbox enabled the submission is written to disk instead and accepted with
+   * a 202, leaving the publish to the outbox drainer. A repeated {@value #IDEMPOTENCY_KEY} gets the
+   * original response back without the submission being processed again. While the publish
+   * circuit breaker is open, or the publish bulkhead is full, the submission is refused with a 503
+   * and a {@code Retry-After} header. A submission still unanswered after the submission timeout
+   * gets a 503 as well, and is not published unless its SNS call has already started; a client
+   * that sends an {@value #IDEMPOTENCY_KEY} can retry it without risk of a duplicate.
+   */
   @POST
   @Produces(MediaType.APPLICATION_JSON)
   @Path("controller")
-  public Response post(String jsonPayload) {
-    ObjectMapper mapper = new ObjectMapper();
-    Response response;
-    DSForm form;
+  public void post(
+      String jsonPayload,
+      @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey,
+      @Suspended AsyncResponse asyncResponse) {
+    if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+      asyncResponse.resume(
+          Response.status(Response.Status.BAD_REQUEST)
+              .entity(IDEMPOTENCY_KEY + " is too long")
+              .build());
+      return;
+    }
+
+    CompletableFuture<Void> timedOut = new CompletableFuture<>();
+    resumeWithServiceUnavailableAfterTimeout(asyncResponse, timedOut);
+    CompletableFuture<Response> result =
+        idempotencyKey == null
+            ? submit(jsonPayload, timedOut)
+            : idempotencyStore.submitOnce(idempotencyKey, () -> submit(jsonPayload, timedOut));
+    result.whenComplete(
+        (response, error) -> {
+          if (error == null) {
+            asyncResponse.resume(response);
+          } else {
+            asyncResponse.resume(error instanceof CompletionException ? error.getCause() : error);
+          }
+        });
+  }
+
+  /**
+   * Answers with a 503 once the submission timeout passes, then completes {@code timedOut} so that
+   * publishes still waiting for the executor, or for their next retry, are dropped rather than
+   * sent after the client has been told the submission failed.
+   */
+  private void resumeWithServiceUnavailableAfterTimeout(
+      AsyncResponse asyncResponse, CompletableFuture<Void> timedOut) {
+    asyncResponse.setTimeoutHandler(
+        response -> {
+          LOG.error("Submission was not completed within the timeout, returning 503");
+          response.resume(
+              Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(ERROR_MSG).build());
+          timedOut.complete(null);
+        });
+    asyncResponse.setTimeout(
+        controllerConfiguration.getSubmissionTimeout().toMilliseconds(), TimeUnit.MILLISECONDS);
+  }
+
+  private CompletableFuture<Response> submit(
+      String jsonPayload, CompletableFuture<Void> timedOut) {
+    PreparedSubmission submission;
     try {
-      form = validator.validateAndTranslate(jsonPayload);
-      LOG.info("Submission received");
-      LOG.debug("Submission received from {}", form.getDeclarerName());
+      submission = prepare(jsonPayload);
 
-      Ds1500Metadata drsMetadata = metadataBuilder.buildPayload(form, LocalDate.now());
+    } catch (JsonProcessingException | InvalidJsonException | InvalidNinoException e) {
+      return CompletableFuture.completedFuture(validationFailed(e));
+    }
 
-      UUID correlationId = UUID.randomUUID();
+    if (outbox != null) {
+      return CompletableFuture.completedFuture(
+          acceptIntoOutbox(submission.drsPayloadJson, submission.correlationId));
+    }
+    return publishAsync(submission, timedOut);
+  }
 
-      MetaData metaData =
-          new MetaData(Collections.singletonList(controllerConfiguration.getSnsSubject()));
-      metaData.setRoutingKey(controllerConfiguration.getSnsRoutingKey());
-      metaData.setCorrelationId(correlationId.toString());
+  private PreparedSubmission prepare(String jsonPayload)
+      throws JsonProcessingException, InvalidJsonException, InvalidNinoException {
+    DSForm form = validator.validateAndTranslate(jsonPayload);
+    LOG.info("Submission received");
+    LOG.debug("Submission received from {}", form.getDeclarerName());
 
-      EventMessage messageQueueEvent = new EventMessage();
-      messageQueueEvent.setBodyContents(
-          mapper.readValue(
-              new DrsPayloadBuilder<DSForm, Ds1500Metadata>().getDrsPayloadJson(form, drsMetadata),
-              Object.class));
-      messageQueueEvent.setMetaData(metaData);
+    Ds1500Metadata drsMetadata = metadataBuilder.buildPayload(form, LocalDate.now());
 
-      publishMessageToSns(messageQueueEvent);
+    return new PreparedSubmission(
+        form,
+        idGenerator.correlationId(),
+        new DrsPayloadBuilder<DSForm, Ds1500Metadata>().getDrsPayloadJson(form, drsMetadata));
+  }
 
-      LOG.info("DS1500 form successfully published to SNS");
-      LOG.debug(
-          "DS1500 form successfully published to SNS from {} with correlationId {}",
-          form.getDeclarerName(),
-          correlationId);
-      response =
-          Response.ok(
-                  String.format("{\"id\":\"%s\"}", correlationId.toString()),
-                  MediaType.APPLICATION_JSON_TYPE)
-              .build();
+  private CompletableFuture<Response> publishAsync(
+      PreparedSubmission submission, CompletableFuture<Void> timedOut) {
+    UUID correlationId = submission.correlationId;
+    if (timedOut.isDone()) {
+      return CompletableFuture.completedFuture(abandoned(correlationId));
+    }
+    if (!publishGuard.tryEnter()) {
+      return CompletableFuture.completedFuture(publishRefused());
+    }
 
-    } catch (JsonProcessingException | InvalidJsonException | InvalidNinoException e) {
-      response =
-          Response.status(Response.Status.BAD_REQUEST)
-              .entity("JSON payload failed validation")
-              .build();
-      LOG.error("JSON validation failed :: {}", e.getMessage());
-      LOG.debug(e.getClass().getName(), e);
+    EventMessage messageQueueEvent =
+        buildEvent(submission.drsPayloadJson, correlationId.toString());
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    result.whenComplete((response, error) -> publishGuard.exit());
+    statusStore.record(correlationId, SubmissionStatus.ACCEPTED);
+    long deadlineNanos = publishRetry.deadlineFromNow();
+    try {
+      publishExecutor.execute(
+          () ->
+              publishAndComplete(
+                  result,
+                  messageQueueEvent,
+                  submission.form,
+                  correlationId,
+                  deadlineNanos,
+                  timedOut));
+
+    } catch (RejectedExecutionException e) {
+      result.complete(publishRejected(e));
+    }
+    return result;
+  }
 
-    } catch (EventsMessageException e) {
-      response = Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
-      LOG.error("Publishing events message exception :: {}", e.getMessage());
-      LOG.debug(e.getClass().getName(), e);
+  private Response publishRefused() {
+    long retryAfterSeconds = publishGuard.getRetryAfterSeconds();
+    LOG.warn(
+        "SNS publishing is held back (circuit {}), rejecting submission for {}s",
+        publishGuard.getState(),
+        retryAfterSeconds);
+    return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+        .entity(ERROR_MSG)
+        .build();
+  }
 
-    } catch (CryptoException e) {
-      response = Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
-      LOG.error("Crypto exception :: {}", e.getMessage());
+  private static Response publishRejected(RejectedExecutionException e) {
+    LOG.error("Publish queue is full, rejecting submission :: {}", e.getMessage());
+    return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(ERROR_MSG).build();
+  }
+
+  /**
+   * Accepts many forms in one request, as a JSON array or as NDJSON. The forms are validated in
+   * parallel and the valid ones published {@value #BATCH_PUBLISH_GROUP} at a time on the publish
+   * executor, or written to the outbox together when it is enabled. The response lists an id or
+   * an error for each form, in the order they were sent.
+   */
+  @POST
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("controller/batch")
+  public void postBatch(String body, @Suspended AsyncResponse asyncResponse) {
+    List<String> payloads;
+    try {
+      payloads = batchPayloads.split(body);
+
+    } catch (InvalidJsonException e) {
+      LOG.error("JSON batch rejected :: {}", e.getMessage());
       LOG.debug(e.getClass().getName(), e);
+      asyncResponse.resume(
+          Response.status(Response.Status.BAD_REQUEST)
+              .entity("JSON batch failed validation")
+              .build());
+      return;
+    }
+
+    CompletableFuture<Void> timedOut = new CompletableFuture<>();
+    resumeWithServiceUnavailableAfterTimeout(asyncResponse, timedOut);
+    List<BatchItem> items =
+        payloads.parallelStream().map(this::prepareBatchItem).collect(Collectors.toList());
+    List<BatchItem> valid =
+        items.stream().filter(item -> item.submission != null).collect(Collectors.toList());
+    CompletableFuture<Void> done =
+        outbox != null ? acceptBatchIntoOutbox(valid) : publishInGroups(valid, timedOut);
+
+    done.whenComplete(
+        (ignored, error) -> {
+          if (error == null) {
+            asyncResponse.resume(batchResponse(items));
+          } else {
+            asyncResponse.resume(error instanceof CompletionException ? error.getCause() : error);
+          }
+        });
+  }
 
-    } catch (InvocationTargetException e) {
-      response = Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
-      LOG.error("Invocation target exception :: {}", e.getMessage());
+  private BatchItem prepareBatchItem(String jsonPayload) {
+    BatchItem item = new BatchItem();
+    try {
+      item.submission = prepare(jsonPayload);
+
+    } catch (JsonProcessingException | InvalidJsonException | InvalidNinoException e) {
+      item.error = validationFailed(e).getEntity().toString();
+    }
+    return item;
+  }
+
+  private CompletableFuture<Void> publishInGroups(
+      List<BatchItem> items, CompletableFuture<Void> timedOut) {
+    CompletableFuture<Void> published = CompletableFuture.completedFuture(null);
+    for (int from = 0; from < items.size(); from += BATCH_PUBLISH_GROUP) {
+      List<BatchItem> group =
+          items.subList(from, Math.min(from + BATCH_PUBLISH_GROUP, items.size()));
+      published = published.thenCompose(ignored -> publishGroup(group, timedOut));
+    }
+    return published;
+  }
+
+  private CompletableFuture<Void> publishGroup(
+      List<BatchItem> group, CompletableFuture<Void> timedOut) {
+    CompletableFuture<?>[] published = new CompletableFuture<?>[group.size()];
+    for (int i = 0; i < group.size(); i++) {
+      BatchItem item = group.get(i);
+      published[i] =
+          publishAsync(item.submission, timedOut)
+              .handle(
+                  (response, error) -> {
+                    if (error == null && response.getStatus() == HttpStatus.SC_OK) {
+                      item.id = item.submission.correlationId;
+                    } else {
+                      item.error = error == null ? response.getEntity().toString() : ERROR_MSG;
+                    }
+                    return null;
+                  });
+    }
+    return CompletableFuture.allOf(published);
+  }
+
+  private CompletableFuture<Void> acceptBatchIntoOutbox(List<BatchItem> items) {
+    List<OutboxEntry> entries = new ArrayList<>(items.size());
+    for (BatchItem item : items) {
+      statusStore.record(item.submission.correlationId, SubmissionStatus.ACCEPTED);
+      entries.add(
+          new OutboxEntry(
+              item.submission.correlationId.toString(), item.submission.drsPayloadJson));
+    }
+
+    try {
+      outbox.appendAll(entries);
+      items.forEach(item -> item.id = item.submission.correlationId);
+      LOG.info("{} DS1500 forms accepted into the outbox", items.size());
+
+    } catch (IOException e) {
+      LOG.error("Unable to write the batch to the outbox :: {}", e.getMessage());
       LOG.debug(e.getClass().getName(), e);
+      for (BatchItem item : items) {
+        statusStore.record(item.submission.correlationId, SubmissionStatus.FAILED);
+        item.error = ERROR_MSG;
+      }
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private Response batchResponse(List<BatchItem> items) {
+    List<Map<String, String>> results = new ArrayList<>(items.size());
+    for (BatchItem item : items) {
+      results.add(
+          item.id != null
+              ? Collections.singletonMap("id", item.id.toString())
+              : Collections.singletonMap("error", item.error));
+    }
+
+    try {
+      return Response.status(outbox != null ? Response.Status.ACCEPTED : Response.Status.OK)
+          .entity(jsonCodec.write(results))
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .build();
 
-    } catch (InstantiationException e) {
-      response = Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
-      LOG.error("Instantiation exception :: {}", e.getMessage());
+    } catch (JsonProcessingException e) {
+      LOG.error("Unable to write the batch response :: {}", e.getMessage());
       LOG.debug(e.getClass().getName(), e);
+      return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
+    }
+  }
 
-    } catch (NoSuchMethodException e) {
-      response = Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
-      LOG.error("No such method exception :: {}", e.getMessage());
+  /** Reports whether a submission accepted within the status TTL has reached SNS yet. */
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("controller/{id}")
+  public Response status(@PathParam("id") String id) {
+    UUID correlationId;
+    try {
+      correlationId = UUID.fromString(id);
+
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("Invalid submission id").build();
+    }
+
+    return statusStore
+        .lookup(correlationId)
+        .map(
+            status ->
+                Response.ok(
+                        String.format(
+                            "{\"id\":\"%s\",\"status\":\"%s\"}", correlationId, status.label()),
+                        MediaType.APPLICATION_JSON_TYPE)
+                    .build())
+        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+  }
+
+  /**
+   * Runs the form validation alone, with no metadata, SNS or PDF work, and lists every failure so
+   * the front end can check a form before submitting it.
+   */
+  @POST
+  @Timed
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("validate")
+  public Response validate(String jsonPayload) {
+    List<String> failures = validator.validationFailures(jsonPayload);
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("valid", failures.isEmpty());
+    if (!failures.isEmpty()) {
+      LOG.info("Pre-flight validation found {} failures", failures.size());
+      result.put("errors", failures);
+    }
+
+    try {
+      return Response.status(failures.isEmpty() ? Response.Status.OK : Response.Status.BAD_REQUEST)
+          .entity(jsonCodec.write(result))
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .build();
+
+    } catch (JsonProcessingException e) {
+      LOG.error("Unable to write the validation result :: {}", e.getMessage());
       LOG.debug(e.getClass().getName(), e);
+      return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
+    }
+  }
 
-    } catch (IllegalAccessException e) {
-      response = Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
-      LOG.error("Illegal access exception :: {}", e.getMessage());
+  private Response acceptIntoOutbox(String drsPayloadJson, UUID correlationId) {
+    statusStore.record(correlationId, SubmissionStatus.ACCEPTED);
+    try {
+      outbox.append(new OutboxEntry(correlationId.toString(), drsPayloadJson));
+      LOG.info("DS1500 form accepted into the outbox");
+      LOG.debug("DS1500 form accepted into the outbox with correlationId {}", correlationId);
+      return Response.status(Response.Status.ACCEPTED)
+          .entity(String.format("{\"id\":\"%s\"}", correlationId.toString()))
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .build();
+
+    } catch (IOException e) {
+      statusStore.record(correlationId, SubmissionStatus.FAILED);
+      LOG.error("Unable to write to the outbox :: {}", e.getMessage());
       LOG.debug(e.getClass().getName(), e);
+      return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
+    }
+  }
 
+  /**
+   * Publishes an entry taken from the outbox, exactly as a direct submission would be. Throws
+   * {@link PublishHeldBackException} while the publish guard is refusing calls, leaving the entry
+   * for the drainer to retry.
+   */
+  public void publishOutboxEntry(OutboxEntry entry) throws Exception {
+    UUID correlationId = UUID.fromString(entry.getCorrelationId());
+    if (!publishGuard.tryEnter()) {
+      throw new PublishHeldBackException(
+          String.format(
+              "SNS publishing is held back, retry in %ds", publishGuard.getRetryAfterSeconds()));
     }
 
-    return response;
+    try {
+      EventMessage messageQueueEvent =
+          buildEvent(entry.getDrsPayloadJson(), entry.getCorrelationId());
+      publishGuard.call(() -> publishMessageToSns(messageQueueEvent));
+      statusStore.record(correlationId, SubmissionStatus.PUBLISHED);
+      LOG.debug("Outbox entry {} published to SNS", correlationId);
+
+    } finally {
+      publishGuard.exit();
+    }
+  }
+
+  /**
+   * Records that the drainer has given up on an outbox entry. Until then a failed publish leaves
+   * the submission {@code accepted}, since the entry is still going to be retried.
+   */
+  public void outboxEntryDeadLettered(OutboxEntry entry) {
+    statusStore.record(UUID.fromString(entry.getCorrelationId()), SubmissionStatus.FAILED);
+  }
+
+  private EventMessage buildEvent(String drsPayloadJson, String correlationId) {
+    MetaData metaData =
+        new MetaData(Collections.singletonList(controllerConfiguration.getSnsSubject()));
+    metaData.setRoutingKey(controllerConfiguration.getSnsRoutingKey());
+    metaData.setCorrelationId(correlationId);
+
+    EventMessage messageQueueEvent = new EventMessage();
+    messageQueueEvent.setBodyContents(jsonCodec.rawJson(drsPayloadJson));
+    messageQueueEvent.setMetaData(metaData);
+    return messageQueueEvent;
+  }
+
+  private void publishAndComplete(
+      CompletableFuture<Response> result,
+      EventMessage messageQueueEvent,
+      DSForm form,
+      UUID correlationId,
+      long deadlineNanos,
+      CompletableFuture<Void> timedOut) {
+    if (timedOut.isDone()) {
+      result.complete(abandoned(correlationId));
+      return;
+    }
+    try {
+      Response response =
+          publish(messageQueueEvent, form, correlationId, deadlineNanos, timedOut);
+      statusStore.record(
+          correlationId,
+          response.getStatus() == HttpStatus.SC_OK
+              ? SubmissionStatus.PUBLISHED
+              : SubmissionStatus.FAILED);
+      result.complete(response);
+
+    } catch (CancellationException e) {
+      result.complete(abandoned(correlationId));
+
+    } catch (RuntimeException e) {
+      statusStore.record(correlationId, SubmissionStatus.FAILED);
+      result.completeExceptionally(e);
+    }
+  }
+
+  private Response publish(
+      EventMessage messageQueueEvent,
+      DSForm form,
+      UUID correlationId,
+      long deadlineNanos,
+      CompletableFuture<Void> timedOut) {
+    try {
+      publishRetry.run(
+          () -> {
+            if (timedOut.isDone()) {
+              throw new CancellationException("Submission timed out before it was retried");
+            }
+            publishGuard.call(() -> publishMessageToSns(messageQueueEvent));
+          },
+          deadlineNanos);
+
+    } catch (RuntimeException e) {
+      throw e;
+
+    } catch (Exception e) {
+      return publishFailed(e);
+    }
+
+    return published(form, correlationId);
+  }
+
+  private static Response abandoned(UUID correlationId) {
+    LOG.warn("Submission {} timed out before it reached SNS, not publishing it", correlationId);
+    return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(ERROR_MSG).build();
+  }
+
+  private static Response published(DSForm form, UUID correlationId) {
+    LOG.info("DS1500 form successfully published to SNS");
+    LOG.debug(
+        "DS1500 form successfully published to SNS from {} with correlationId {}",
+        form.getDeclarerName(),
+        correlationId);
+    return Response.ok(
+            String.format("{\"id\":\"%s\"}", correlationId.toString()),
+            MediaType.APPLICATION_JSON_TYPE)
+        .build();
+  }
+
+  private static Response publishFailed(Exception e) {
+    if (e instanceof JsonProcessingException) {
+      return validationFailed(e);
+    }
+
+    LOG.error("{} publishing to SNS :: {}", e.getClass().getSimpleName(), e.getMessage());
+    LOG.debug(e.getClass().getName(), e);
+    return Response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR).entity(ERROR_MSG).build();
+  }
+
+  private static Response validationFailed(Exception e) {
+    LOG.error("JSON validation failed :: {}", e.getMessage());
+    LOG.debug(e.getClass().getName(), e);
+    return Response.status(Response.Status.BAD_REQUEST)
+        .entity("JSON payload failed validation")
+        .build();
   }
 
   @POST
@@ -233,7 +684,7 @@ public class Ds1500ControllerResource {
       dsForm = validator.validateAndTranslate(jsonPayload);
 
       byte[] bytes =
-          pdfDocType.getPdf(convertFormIntoJsonString(dsForm, viewClass), pdfGeneratorURL);
+          pdfDocType.getPdf(jsonCodec.writeWithView(dsForm, viewClass), pdfGeneratorURL);
       Response.ResponseBuilder ok = Response.ok(bytes, "application/download");
       ok.header(
           "Content-Disposition", String.format("attachment; filename=\"%s\"", pdfResultFilename));
@@ -260,11 +711,21 @@ public class Ds1500ControllerResource {
     return response;
   }
 
-  private String  convertFormIntoJsonString(DSForm form, Class<?> classView)
-      throws JsonProcessingException {
-    ObjectMapper mapper = new ObjectMapper();
+  private static final class PreparedSubmission {
+    private final DSForm form;
+    private final UUID correlationId;
+    private final String drsPayloadJson;
+
+    private PreparedSubmission(DSForm form, UUID correlationId, String drsPayloadJson) {
+      this.form = form;
+      this.correlationId = correlationId;
+      this.drsPayloadJson = drsPayloadJson;
+    }
+  }
 
-    mapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
-    return mapper.writerWithView(classView).writeValueAsString(form);
+  private static final class BatchItem {
+    private PreparedSubmission submission;
+    private UUID id;
+    private String error;
   }
 }
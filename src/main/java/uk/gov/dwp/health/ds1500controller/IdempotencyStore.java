@@ -0,0 +1,100 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.ws.rs.core.Response;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to each {@code Idempotency-Key} for the length of the window, so a
+ * client retry gets the original answer without the submission being processed again. The first
+ * request for a key claims it; duplicates that arrive while it is still running complete when it
+ * does. Only successful responses are kept: after a failure the key is released and the next
+ * retry is processed afresh.
+ */
+public class IdempotencyStore {
+  public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+  public static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+  public static final int DEFAULT_STRIPES = 16;
+
+  private final ConcurrentMap<String, CompletableFuture<Response>> responses;
+  private final Cache<String, CompletableFuture<Response>> cache;
+  private final Meter hits = new Meter();
+  private final Meter misses = new Meter();
+
+  public IdempotencyStore(long maximumSize, Duration window, int stripes) {
+    this(maximumSize, window, stripes, Ticker.systemTicker());
+  }
+
+  IdempotencyStore(long maximumSize, Duration window, int stripes, Ticker ticker) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(window)
+            .concurrencyLevel(stripes)
+            .ticker(ticker)
+            .build();
+    this.responses = cache.asMap();
+  }
+
+  /** Runs {@code submission} unless the key has already been claimed within the window. */
+  public CompletableFuture<Response> submitOnce(
+      String key, Supplier<CompletableFuture<Response>> submission) {
+    CompletableFuture<Response> claim = new CompletableFuture<>();
+    CompletableFuture<Response> first = responses.putIfAbsent(key, claim);
+    if (first != null) {
+      hits.mark();
+      return first.thenApply(IdempotencyStore::copy);
+    }
+
+    misses.mark();
+    CompletableFuture<Response> result;
+    try {
+      result = submission.get();
+    } catch (RuntimeException e) {
+      result = CompletableFuture.failedFuture(e);
+    }
+    result.whenComplete(
+        (response, error) -> {
+          if (error != null || !isSuccessful(response)) {
+            responses.remove(key, claim);
+          }
+          if (error != null) {
+            claim.completeExceptionally(error);
+          } else {
+            claim.complete(response);
+          }
+        });
+    return claim;
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(IdempotencyStore.class, "hits"), hits);
+    metrics.register(MetricRegistry.name(IdempotencyStore.class, "misses"), misses);
+    metrics.register(
+        MetricRegistry.name(IdempotencyStore.class, "size"), (Gauge<Long>) cache::size);
+  }
+
+  public long getHitCount() {
+    return hits.getCount();
+  }
+
+  private static boolean isSuccessful(Response response) {
+    return response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+  }
+
+  private static Response copy(Response response) {
+    return Response.status(response.getStatus())
+        .entity(response.getEntity())
+        .type(response.getMediaType())
+        .build();
+  }
+}
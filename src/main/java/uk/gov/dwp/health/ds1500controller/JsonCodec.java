@@ -0,0 +1,56 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.Views;
+
+import java.util.Map;
+
+/**
+ * The one Jackson mapper the service uses, with its writers built up front so their serializer
+ * caches survive between requests. View writers only include properties annotated
+ * with the view.
+ */
+public class JsonCodec {
+  private final ObjectMapper mapper;
+  private final ObjectWriter writer;
+  private final Map<Class<?>, ObjectWriter> viewWriters;
+
+  public JsonCodec() {
+    mapper = JsonMapper.builder().disable(MapperFeature.DEFAULT_VIEW_INCLUSION).build();
+    writer = mapper.writer();
+    viewWriters =
+        Map.of(
+            DSForm.class, mapper.writerWithView(DSForm.class),
+            Views.DsFeeForm.class, mapper.writerWithView(Views.DsFeeForm.class));
+  }
+
+  /**
+   * Wraps an already serialised document so that any mapper writing it out copies the JSON
+   * through as-is, rather than it being parsed into a map only to be serialised again.
+   */
+  public Object rawJson(String json) {
+    return new RawValue(json);
+  }
+
+  public String write(Object value) throws JsonProcessingException {
+    return writer.writeValueAsString(value);
+  }
+
+  public String writeWithView(Object value, Class<?> view) throws JsonProcessingException {
+    ObjectWriter viewWriter = viewWriters.get(view);
+    if (viewWriter == null) {
+      throw new IllegalArgumentException("No writer registered for view " + view.getName());
+    }
+    return viewWriter.writeValueAsString(value);
+  }
+
+  public ObjectMapper getMapper() {
+    return mapper;
+  }
+}
@@ -1,21 +1,29 @@
 package uk.gov.dwp.health.ds1500controller;
 
-import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.dwp.health.ds1500controller.domain.DSForm;
 import uk.gov.dwp.health.ds1500controller.domain.Ds1500Metadata;
+import uk.gov.dwp.health.ds1500controller.utils.IdGenerator;
+import uk.gov.dwp.health.ds1500controller.utils.PackedDate;
+import uk.gov.dwp.health.ds1500controller.utils.PackedNino;
+import uk.gov.dwp.health.ds1500controller.utils.TimeOrderedIdGenerator;
 import uk.gov.dwp.regex.InvalidNinoException;
 import uk.gov.dwp.regex.NinoValidator;
 
 import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.Locale;
 
 public class MetadataBuilder {
   private static final Logger LOG = LoggerFactory.getLogger(MetadataBuilder.class);
+  private final IdGenerator idGenerator;
+
+  public MetadataBuilder() {
+    this(new TimeOrderedIdGenerator());
+  }
+
+  public MetadataBuilder(IdGenerator idGenerator) {
+    this.idGenerator = idGenerator;
+  }
 
   public Ds1500Metadata buildPayload(DSForm form, LocalDate submissionDate)
       throws InvalidNinoException {
@@ -26,7 +34,7 @@ public class MetadataBuilder {
     metadata.setDocumentType(1242);
     metadata.setDocumentSource(4);
     metadata.setLOBCaseID("SR1");
-    metadata.setClaimRef(RandomStringUtils.randomAlphanumeric(30));
+    metadata.setClaimRef(idGenerator.claimRef());
 
     if (form.getSurname() != null) {
       metadata.setSurname(form.getSurname());
@@ -37,58 +45,54 @@ public class MetadataBuilder {
     if (form.getPostcode() != null) {
       metadata.setPostCode(form.getPostcode());
     }
-    if (form.getnINumber() != null && NinoValidator.validateNINO(form.getnINumber())) {
-      metadata.setNino(new NinoValidator(form.getnINumber()));
+    if (form.getnINumber() != null) {
+      long nino = packedNino(form);
+      if (nino != PackedNino.INVALID) {
+        metadata.setNino(new NinoValidator(PackedNino.body(nino), PackedNino.suffix(nino)));
+      }
     }
     if (form.getDateOfBirth() != null) {
-      setApplicationTargetUnit(form.getDateOfBirth(), submissionDate, metadata);
-      metadata.setDateOfBirth(buildDOB(form.getDateOfBirth()));
+      int dateOfBirth = packedDateOfBirth(form);
+      if (dateOfBirth == PackedDate.INVALID) {
+        LOG.error("Unable to format {}", form.getDateOfBirth());
+      } else {
+        setApplicationTargetUnit(dateOfBirth, submissionDate, metadata);
+      }
+      metadata.setDateOfBirth(dateOfBirth);
     }
 
     return metadata;
   }
 
-  private int buildDOB(String dateOfBirth) {
-    int dobValue;
-    try {
-      LocalDate dateTime = LocalDate.parse(dateOfBirth, DateTimeFormatter.ofPattern("d/M/yyyy"));
-      String constructedDOB =
-          Integer.toString(dateTime.getYear())
-              + ""
-              + String.format("%02d", dateTime.getMonthValue())
-              + ""
-              + String.format("%02d", dateTime.getDayOfMonth());
-      dobValue = Integer.parseInt(constructedDOB);
-    } catch (DateTimeParseException e) {
-      LOG.error("Unable to format {}", dateOfBirth);
-      LOG.debug(e.getClass().getName(), e);
-      dobValue = 0;
+  private long packedNino(DSForm form) {
+    if (form.getPackedNino() != PackedNino.INVALID) {
+      return form.getPackedNino();
     }
+    return PackedNino.parse(form.getnINumber());
+  }
 
-    return dobValue;
+  private int packedDateOfBirth(DSForm form) {
+    if (form.getPackedDateOfBirth() != PackedDate.INVALID) {
+      return form.getPackedDateOfBirth();
+    }
+    return PackedDate.parse(form.getDateOfBirth());
   }
 
   private void setApplicationTargetUnit(
-      String applicantDOB, LocalDate submissionDate, Ds1500Metadata headerInfo) {
-    try {
-      LocalDate birthDate =
-          LocalDate.parse(applicantDOB, DateTimeFormatter.ofPattern("d/M/yyyy", Locale.ENGLISH));
+      int dateOfBirth, LocalDate submissionDate, Ds1500Metadata headerInfo) {
+    int age = PackedDate.yearsBetween(dateOfBirth, PackedDate.of(submissionDate));
 
-      if (Period.between(birthDate, submissionDate).getYears() < 16) {
-        headerInfo.setBusinessUnitID("29");
-        headerInfo.setBenefitType(23);
-        headerInfo.setOfficePostcode("DL19QX");
-      } else if (Period.between(birthDate, submissionDate).getYears() < 65) {
-        headerInfo.setBusinessUnitID("20");
-        headerInfo.setBenefitType(7);
-      } else {
-        headerInfo.setBusinessUnitID("34");
-        headerInfo.setBenefitType(36);
-        headerInfo.setOfficePostcode("AA19QX");
-      }
-    } catch (DateTimeParseException e) {
-      LOG.error("Unable to parse {} :: {}", applicantDOB, e.getMessage());
-      LOG.debug(e.getClass().getName(), e);
+    if (age < 16) {
+      headerInfo.setBusinessUnitID("29");
+      headerInfo.setBenefitType(23);
+      headerInfo.setOfficePostcode("DL19QX");
+    } else if (age < 65) {
+      headerInfo.setBusinessUnitID("20");
+      headerInfo.setBenefitType(7);
+    } else {
+      headerInfo.setBusinessUnitID("34");
+      headerInfo.setBenefitType(36);
+      headerInfo.setOfficePostcode("AA19QX");
     }
   }
 }
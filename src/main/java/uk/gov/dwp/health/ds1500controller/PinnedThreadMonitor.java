@@ -0,0 +1,79 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.lifecycle.Managed;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Streams the JDK's {@value #PINNED_EVENT} flight recorder events while the service runs on
+ * virtual threads. A virtual thread that blocks inside a {@code synchronized} block, in our code
+ * or a client library, holds on to its carrier thread; each such pin longer than the threshold
+ * is counted and logged with the first frame outside the JDK so the culprit can be found.
+ */
+public class PinnedThreadMonitor implements Managed {
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final Logger LOG = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+  private final Duration threshold;
+  private final Meter pinnedThreads = new Meter();
+  private RecordingStream recording;
+
+  public PinnedThreadMonitor(Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(PinnedThreadMonitor.class, "pinned"), pinnedThreads);
+  }
+
+  @Override
+  public void start() {
+    recording = new RecordingStream();
+    recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recording.onEvent(
+        PINNED_EVENT, event -> recordPin(event.getDuration(), culprit(event.getStackTrace())));
+    recording.startAsync();
+  }
+
+  @Override
+  public void stop() {
+    if (recording != null) {
+      recording.close();
+    }
+  }
+
+  void recordPin(Duration duration, String culprit) {
+    pinnedThreads.mark();
+    LOG.warn("Virtual thread pinned its carrier for {} ms at {}", duration.toMillis(), culprit);
+  }
+
+  public long getPinnedCount() {
+    return pinnedThreads.getCount();
+  }
+
+  static String culprit(RecordedStackTrace stackTrace) {
+    if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+      return "unknown";
+    }
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      String type = frame.getMethod().getType().getName();
+      if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+        return describe(frame);
+      }
+    }
+    return describe(stackTrace.getFrames().get(0));
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return String.format(
+        "%s.%s:%d",
+        frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+  }
+}
@@ -0,0 +1,95 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Guards the SNS publish with a bulkhead and a {@link CircuitBreaker}. The bulkhead caps the
+ * publishes queued or in flight at once, so a stalled SNS cannot tie up every publish thread and
+ * queue slot; the breaker stops publishing altogether while SNS is failing or slow. A place is
+ * claimed with {@link #tryEnter()} before the publish is queued and held until {@link #exit()},
+ * but the breaker only sees the SNS calls made through {@link #call}, each timed on its own, so
+ * queueing and waits between retries never count as a slow call. A caller that is
+ * turned away should answer 503 and ask the client to come back after {@link
+ * #getRetryAfterSeconds()}.
+ */
+public class PublishGuard {
+  private final CircuitBreaker circuitBreaker;
+  private final Semaphore bulkhead;
+  private final int maxConcurrent;
+  private final Ticker ticker;
+  private final Meter bulkheadFull = new Meter();
+
+  public PublishGuard(CircuitBreaker circuitBreaker, int maxConcurrent) {
+    this(circuitBreaker, maxConcurrent, Ticker.systemTicker());
+  }
+
+  PublishGuard(CircuitBreaker circuitBreaker, int maxConcurrent, Ticker ticker) {
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = new Semaphore(maxConcurrent);
+    this.maxConcurrent = maxConcurrent;
+    this.ticker = ticker;
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    circuitBreaker.registerMetrics(metrics);
+    metrics.register(
+        MetricRegistry.name(PublishGuard.class, "inFlight"),
+        (Gauge<Integer>) () -> maxConcurrent - bulkhead.availablePermits());
+    metrics.register(MetricRegistry.name(PublishGuard.class, "bulkheadFull"), bulkheadFull);
+  }
+
+  /**
+   * Claims a place for one publish, returning false if the bulkhead is full or the breaker is
+   * open. Every successful call must be followed by {@link #exit()} once the publish is over.
+   */
+  public boolean tryEnter() {
+    if (!bulkhead.tryAcquire()) {
+      bulkheadFull.mark();
+      return false;
+    }
+    if (!circuitBreaker.tryAcquirePermission()) {
+      bulkhead.release();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Makes one SNS call, recording how long it took and whether it failed with the breaker. Only
+   * the SNS and KMS failures {@link PublishRetry} would retry count against SNS; anything else,
+   * such as an event that cannot be serialised, is the request's fault and counts as a success.
+   */
+  public void call(PublishRetry.Attempt snsCall) throws Exception {
+    long startNanos = ticker.read();
+    boolean failed = false;
+    try {
+      snsCall.run();
+
+    } catch (Exception e) {
+      failed = PublishRetry.isRetryable(e);
+      throw e;
+
+    } finally {
+      circuitBreaker.onResult(failed, ticker.read() - startNanos);
+    }
+  }
+
+  /** Frees the place claimed by {@link #tryEnter()}. */
+  public void exit() {
+    circuitBreaker.releasePermission();
+    bulkhead.release();
+  }
+
+  public long getRetryAfterSeconds() {
+    return circuitBreaker.getRetryAfterSeconds();
+  }
+
+  public CircuitBreaker.State getState() {
+    return circuitBreaker.getState();
+  }
+}
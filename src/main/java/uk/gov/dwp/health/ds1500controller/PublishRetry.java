@@ -0,0 +1,156 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.dwp.health.crypto.exception.CryptoException;
+import uk.gov.dwp.health.crypto.exceptions.EventsMessageException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries an SNS publish that failed for a reason that may pass: the SNS and KMS failures the DWP
+ * libraries report as {@link EventsMessageException} and {@link CryptoException}. Each wait is
+ * drawn uniformly between zero and an exponentially growing cap ("full jitter"), so clients that
+ * failed together do not retry together. No wait is started that would end past the request's
+ * deadline, which keeps a throttled SNS from stretching the response time without bound.
+ * Failures that would only fail again, such as serialisation errors, are not retried.
+ */
+public class PublishRetry {
+  private static final Logger LOG = LoggerFactory.getLogger(PublishRetry.class);
+
+  /** One publish attempt. */
+  @FunctionalInterface
+  public interface Attempt {
+    void run() throws Exception;
+  }
+
+  interface Sleeper {
+    void sleep(long nanos) throws InterruptedException;
+  }
+
+  private final int maxAttempts;
+  private final long baseDelayNanos;
+  private final long maxDelayNanos;
+  private final long budgetNanos;
+  private final Ticker ticker;
+  private final Sleeper sleeper;
+  private final Histogram retries = new Histogram(new ExponentiallyDecayingReservoir());
+  private final Timer retryTime = new Timer();
+  private final Meter exhausted = new Meter();
+
+  public PublishRetry(int maxAttempts, Duration baseDelay, Duration maxDelay, Duration budget) {
+    this(
+        maxAttempts,
+        baseDelay,
+        maxDelay,
+        budget,
+        Ticker.systemTicker(),
+        TimeUnit.NANOSECONDS::sleep);
+  }
+
+  PublishRetry(
+      int maxAttempts,
+      Duration baseDelay,
+      Duration maxDelay,
+      Duration budget,
+      Ticker ticker,
+      Sleeper sleeper) {
+    this.maxAttempts = maxAttempts;
+    this.baseDelayNanos = baseDelay.toNanos();
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.budgetNanos = budget.toNanos();
+    this.ticker = ticker;
+    this.sleeper = sleeper;
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(PublishRetry.class, "retries"), retries);
+    metrics.register(MetricRegistry.name(PublishRetry.class, "retryTime"), retryTime);
+    metrics.register(MetricRegistry.name(PublishRetry.class, "exhausted"), exhausted);
+  }
+
+  /** The deadline for a request that starts now, to be passed to {@link #run}. */
+  public long deadlineFromNow() {
+    return ticker.read() + budgetNanos;
+  }
+
+  /**
+   * Runs the attempt, retrying retryable failures until it succeeds, the attempts run out or the
+   * next try would pass {@code deadlineNanos}. The last failure is thrown if it never succeeds.
+   */
+  public void run(Attempt attempt, long deadlineNanos) throws Exception {
+    int retried = 0;
+    long firstFailedAt = 0;
+    try {
+      while (true) {
+        try {
+          attempt.run();
+          if (retried > 0) {
+            LOG.info("Published to SNS after {} retries", retried);
+          }
+          return;
+
+        } catch (Exception e) {
+          if (retried == 0) {
+            firstFailedAt = ticker.read();
+          }
+          if (!isRetryable(e)) {
+            throw e;
+          }
+          long delay = nextDelay(retried);
+          if (retried + 1 >= maxAttempts || ticker.read() + delay >= deadlineNanos) {
+            exhausted.mark();
+            if (retried > 0) {
+              LOG.warn(
+                  "Giving up publishing to SNS after {} retries :: {}", retried, e.getMessage());
+            }
+            throw e;
+          }
+
+          LOG.debug("Retrying SNS publish in {}us :: {}", delay / 1000, e.getMessage());
+          try {
+            sleeper.sleep(delay);
+          } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+          }
+          retried++;
+        }
+      }
+
+    } finally {
+      retries.update(retried);
+      if (retried > 0) {
+        retryTime.update(ticker.read() - firstFailedAt, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  static boolean isRetryable(Exception e) {
+    return e instanceof EventsMessageException || e instanceof CryptoException;
+  }
+
+  /**
+   * Whether a publish failed in a way no later attempt can fix, such as an event that cannot be
+   * serialised. Unchecked exceptions are not assumed to be permanent.
+   */
+  public static boolean isPermanent(Exception e) {
+    return !isRetryable(e) && !(e instanceof RuntimeException);
+  }
+
+  private long nextDelay(int retried) {
+    long cap = baseDelayNanos << Math.min(retried, 30);
+    if (cap <= 0 || cap > maxDelayNanos) {
+      cap = maxDelayNanos;
+    }
+    return ThreadLocalRandom.current().nextLong(cap + 1);
+  }
+}
@@ -0,0 +1,61 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.dwp.health.ds1500controller.validation.InputLimits;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Rejects request bodies larger than the configured limit with a 413. A declared Content-Length
+ * is refused without reading anything, otherwise at most one byte past the limit is read. Batch
+ * submissions have a limit of their own.
+ */
+public class RequestSizeFilter implements ContainerRequestFilter {
+  private static final Logger LOG = LoggerFactory.getLogger(RequestSizeFilter.class);
+  static final String BATCH_PATH = "controller/batch";
+  private final InputLimits inputLimits;
+
+  public RequestSizeFilter(InputLimits inputLimits) {
+    this.inputLimits = inputLimits;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) throws IOException {
+    if (!requestContext.hasEntity()) {
+      return;
+    }
+
+    int maxBodyBytes =
+        BATCH_PATH.equals(requestContext.getUriInfo().getPath())
+            ? inputLimits.getMaxBatchBodyBytes()
+            : inputLimits.getMaxBodyBytes();
+    if (requestContext.getLength() > maxBodyBytes) {
+      reject(requestContext, maxBodyBytes);
+      return;
+    }
+
+    byte[] body = requestContext.getEntityStream().readNBytes(maxBodyBytes + 1);
+    if (body.length > maxBodyBytes) {
+      reject(requestContext, maxBodyBytes);
+      return;
+    }
+
+    requestContext.setEntityStream(new ByteArrayInputStream(body));
+  }
+
+  private void reject(ContainerRequestContext requestContext, int maxBodyBytes) {
+    inputLimits.recordOversizeBody();
+    LOG.error("Request body exceeds {} bytes", maxBodyBytes);
+    requestContext.abortWith(
+        Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+            .entity("JSON payload is too large")
+            .type(MediaType.TEXT_PLAIN_TYPE)
+            .build());
+  }
+}
@@ -0,0 +1,50 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import uk.gov.dwp.health.ds1500controller.domain.SubmissionStatus;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The last known state of each recent submission, keyed by its correlation id. Entries expire
+ * after the TTL and the oldest are evicted beyond the maximum size, so memory stays bounded
+ * however many clients poll. Lookups are hash reads that take no lock.
+ */
+public class SubmissionStatusStore {
+  public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+  public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+  private final Cache<UUID, SubmissionStatus> statuses;
+
+  public SubmissionStatusStore(long maximumSize, Duration ttl) {
+    this(maximumSize, ttl, Ticker.systemTicker());
+  }
+
+  SubmissionStatusStore(long maximumSize, Duration ttl, Ticker ticker) {
+    this.statuses =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .build();
+  }
+
+  public void record(UUID correlationId, SubmissionStatus status) {
+    statuses.put(correlationId, status);
+  }
+
+  public Optional<SubmissionStatus> lookup(UUID correlationId) {
+    return Optional.ofNullable(statuses.getIfPresent(correlationId));
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(
+        MetricRegistry.name(SubmissionStatusStore.class, "size"), (Gauge<Long>) statuses::size);
+  }
+}
@@ -0,0 +1,156 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.Views;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.regex.InvalidNinoException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes synthetic submissions through validation, metadata building and Jackson on a background
+ * thread once the service starts, and reports not ready until it has finished, through {@link
+ * WarmUpHealthCheck} on the admin port and {@link WarmUpReadinessFilter} on {@code /healthcheck}.
+ * This loads the libphonenumber GB metadata, the NINO and postcode validators and the Jackson
+ * serialisers, and gives the JIT enough calls to compile the hot paths. The validator it is given
+ * should not cache phone numbers, so every iteration reaches libphonenumber.
+ */
+public class ValidationWarmUp implements Managed {
+  private static final Logger LOG = LoggerFactory.getLogger(ValidationWarmUp.class);
+
+  private static final String VALID_GP_FORM =
+      "{\"patientName\":\"Fake Michael Man\","
+          + "\"patientAddress\":\"23 Fake Road\\nFake Park\\nFake\","
+          + "\"patientPostcode\":\"S2 2RZ\","
+          + "\"patientDateOfBirth-day\":\"15\","
+          + "\"patientDateOfBirth-month\":\"02\","
+          + "\"patientDateOfBirth-year\":\"1972\","
+          + "\"diagnosis\":\"Extreme grumpiness\","
+          + "\"dateOfDiagnosis-day\":\"11\","
+          + "\"dateOfDiagnosis-month\":\"05\","
+          + "\"dateOfDiagnosis-year\":\"2015\","
+          + "\"dateOfSpecialRules-day\":\"01\","
+          + "\"dateOfSpecialRules-month\":\"06\","
+          + "\"dateOfSpecialRules-year\":\"2015\","
+          + "\"patientNino\":\"AA370773A\","
+          + "\"otherDiagnoses\":\"Mild allergies to dub step\","
+          + "\"diagnosisAware\":\"Yes\","
+          + "\"patientAware\":\"Yes\","
+          + "\"clinicalFeatures\":\"Mr Coupe's clinical features & history\","
+          + "\"treatment\":\"Beer, loud music, fluffy kittens\","
+          + "\"declaration\":\"General Practitioner\","
+          + "\"gmcNumber\":\"1234567\","
+          + "\"gpName\":\"Dr Hugo Bosh\","
+          + "\"gpAddress\":\"The Surgery\\nSheffield\","
+          + "\"gpPostcode\":\"S1 1AA\","
+          + "\"gpPhone\":\"0114 2588520\"}";
+
+  private static final List<String> PAYLOADS =
+      List.of(
+          VALID_GP_FORM,
+          VALID_GP_FORM
+              .replace("General Practitioner", "Other")
+              .replace("\"gmcNumber\":\"1234567\"", "\"declarationAdditionalDetail\":\"Nurse\""),
+          VALID_GP_FORM
+              .replace("General Practitioner", "Specialist nurse")
+              .replace("AA370773A", ""),
+          VALID_GP_FORM.replace("0114 2588520", "0114 258"),
+          VALID_GP_FORM.replace("AA370773A", "ZZ370773A"),
+          VALID_GP_FORM.replace("S2 2RZ", "S2"),
+          VALID_GP_FORM.replace("\"1972\"", "\"2016\""),
+          VALID_GP_FORM.replace("Fake Michael Man", "Fake M4n"),
+          VALID_GP_FORM.substring(0, VALID_GP_FORM.length() / 2));
+
+  private final Ds1500JsonValidator validator;
+  private final MetadataBuilder metadataBuilder;
+  private final JsonCodec jsonCodec;
+  private final int iterations;
+
+  private volatile boolean complete;
+  private volatile boolean stopped;
+  private volatile long durationMillis;
+
+  public ValidationWarmUp(
+      Ds1500JsonValidator validator,
+      MetadataBuilder metadataBuilder,
+      JsonCodec jsonCodec,
+      int iterations) {
+    this.validator = validator;
+    this.metadataBuilder = metadataBuilder;
+    this.jsonCodec = jsonCodec;
+    this.iterations = iterations;
+  }
+
+  @Override
+  public void start() {
+    Thread thread = new Thread(this::run, "validation-warm-up");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Runs the warm-up, always finishing as complete: a warm-up that fails part way is logged and
+   * leaves the service to warm up on live traffic rather than keeping it unready for good.
+   */
+  public void run() {
+    long start = System.nanoTime();
+    int accepted = 0;
+
+    try {
+      for (int i = 0; i < iterations && !stopped; i++) {
+        for (String payload : PAYLOADS) {
+          accepted += submit(payload);
+        }
+      }
+
+    } catch (RuntimeException e) {
+      LOG.error("Warm-up stopped after {} accepted submissions :: {}", accepted, e.getMessage());
+      LOG.debug(e.getClass().getName(), e);
+
+    } finally {
+      durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      complete = true;
+      LOG.info(
+          "Warm-up of {} submissions ({} accepted) completed in {} ms",
+          iterations * PAYLOADS.size(),
+          accepted,
+          durationMillis);
+    }
+  }
+
+  private int submit(String payload) {
+    try {
+      DSForm form = validator.validateAndTranslate(payload);
+      jsonCodec.write(metadataBuilder.buildPayload(form, LocalDate.now()));
+      jsonCodec.writeWithView(form, DSForm.class);
+      jsonCodec.writeWithView(form, Views.DsFeeForm.class);
+      return 1;
+
+    } catch (InvalidJsonException | InvalidNinoException e) {
+      return 0;
+
+    } catch (JsonProcessingException e) {
+      LOG.debug(e.getClass().getName(), e);
+      return 0;
+    }
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+}
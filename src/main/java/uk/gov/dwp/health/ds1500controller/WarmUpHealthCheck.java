@@ -0,0 +1,19 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.health.HealthCheck;
+
+public class WarmUpHealthCheck extends HealthCheck {
+  private final ValidationWarmUp warmUp;
+
+  public WarmUpHealthCheck(ValidationWarmUp warmUp) {
+    this.warmUp = warmUp;
+  }
+
+  @Override
+  protected Result check() {
+    if (!warmUp.isComplete()) {
+      return Result.unhealthy("validation warm-up has not finished");
+    }
+    return Result.healthy("validation warmed up in %d ms", warmUp.getDurationMillis());
+  }
+}
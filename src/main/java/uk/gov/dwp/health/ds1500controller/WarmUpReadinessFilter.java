@@ -0,0 +1,32 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Answers {@code /healthcheck} with a 503 until the validation warm-up has finished, so the
+ * orchestrator keeps traffic away from an instance that is still cold. Once it has finished the
+ * request goes through to the health check resource as before.
+ */
+public class WarmUpReadinessFilter implements ContainerRequestFilter {
+  static final String HEALTHCHECK_PATH = "healthcheck";
+  private final ValidationWarmUp warmUp;
+
+  public WarmUpReadinessFilter(ValidationWarmUp warmUp) {
+    this.warmUp = warmUp;
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    if (!warmUp.isComplete()
+        && HEALTHCHECK_PATH.equals(requestContext.getUriInfo().getPath())) {
+      requestContext.abortWith(
+          Response.status(Response.Status.SERVICE_UNAVAILABLE)
+              .entity("validation warm-up has not finished")
+              .type(MediaType.TEXT_PLAIN_TYPE)
+              .build());
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package uk.gov.dwp.health.ds1500controller.application;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of tasks in flight on an executor that has no limit of its own, such as one
+ * virtual thread per task, applying the publish rejection policy once the cap is reached.
+ */
+class BoundedExecutor implements Executor {
+  private final Executor delegate;
+  private final Semaphore permits;
+  private final PublishRejectionPolicy rejectionPolicy;
+
+  BoundedExecutor(Executor delegate, int maxInFlight, PublishRejectionPolicy rejectionPolicy) {
+    this.delegate = delegate;
+    this.permits = new Semaphore(maxInFlight);
+    this.rejectionPolicy = rejectionPolicy;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (!permits.tryAcquire()) {
+      if (rejectionPolicy == PublishRejectionPolicy.ABORT) {
+        throw new RejectedExecutionException("More than the permitted tasks are in flight");
+      }
+      command.run();
+      return;
+    }
+
+    try {
+      delegate.execute(
+          () -> {
+            try {
+              command.run();
+            } finally {
+              permits.release();
+            }
+          });
+
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+}
@@ -1,19 +1,47 @@
 package uk.gov.dwp.health.ds1500controller.application;
 
 import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.core.Application;
 import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.core.server.AbstractServerFactory;
 import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.AutoCloseableManager;
+import io.dropwizard.lifecycle.ExecutorServiceManager;
+import io.dropwizard.util.Duration;
 
 import uk.gov.dwp.health.crypto.CryptoDataManager;
 import uk.gov.dwp.health.crypto.MessageEncoder;
 import uk.gov.dwp.health.crypto.exception.CryptoException;
+import uk.gov.dwp.health.ds1500controller.BatchPayloads;
+import uk.gov.dwp.health.ds1500controller.CircuitBreaker;
 import uk.gov.dwp.health.ds1500controller.Ds1500ControllerResource;
 import uk.gov.dwp.health.ds1500controller.Ds1500JsonValidator;
+import uk.gov.dwp.health.ds1500controller.IdempotencyStore;
+import uk.gov.dwp.health.ds1500controller.JsonCodec;
 import uk.gov.dwp.health.ds1500controller.MetadataBuilder;
+import uk.gov.dwp.health.ds1500controller.PinnedThreadMonitor;
+import uk.gov.dwp.health.ds1500controller.PublishGuard;
+import uk.gov.dwp.health.ds1500controller.PublishRetry;
+import uk.gov.dwp.health.ds1500controller.RequestSizeFilter;
+import uk.gov.dwp.health.ds1500controller.SubmissionStatusStore;
+import uk.gov.dwp.health.ds1500controller.ValidationWarmUp;
+import uk.gov.dwp.health.ds1500controller.WarmUpHealthCheck;
+import uk.gov.dwp.health.ds1500controller.WarmUpReadinessFilter;
+import uk.gov.dwp.health.ds1500controller.outbox.Outbox;
+import uk.gov.dwp.health.ds1500controller.outbox.OutboxDrainer;
+import uk.gov.dwp.health.ds1500controller.utils.IdGenerator;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
 import uk.gov.dwp.health.ds1500controller.utils.PdfRetriever;
+import uk.gov.dwp.health.ds1500controller.utils.TimeOrderedIdGenerator;
+import uk.gov.dwp.health.ds1500controller.utils.VirtualThreads;
+import uk.gov.dwp.health.ds1500controller.validation.InputLimits;
+import uk.gov.dwp.health.ds1500controller.validation.PhoneNumberCache;
+import uk.gov.dwp.health.ds1500controller.validation.ValidationPlan;
 import uk.gov.dwp.health.messageq.amazon.sns.MessagePublisher;
 import uk.gov.dwp.health.version.HealthCheckResource;
 import uk.gov.dwp.health.version.ServiceInfoResource;
@@ -23,8 +51,13 @@ import uk.gov.dwp.tls.TLSConnectionBuilder;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 public class Ds1500ControllerApplication extends Application<Ds1500ControllerConfiguration> {
 
@@ -69,15 +102,164 @@ public class Ds1500ControllerApplication extends Application<Ds1500ControllerCon
             ds1500ControllerConfiguration.getSslKeystoreFilenameFeePdf(),
             ds1500ControllerConfiguration.getSslKeystorePasswordFeePdf());
 
+    final PhoneNumberCache phoneNumberCache =
+        new PhoneNumberCache(
+            PhoneNumberUtil.getInstance(),
+            ds1500ControllerConfiguration.getPhoneNumberCacheMaximumSize(),
+            ds1500ControllerConfiguration.getPhoneNumberCacheTtl().toJavaDuration());
+    phoneNumberCache.registerMetrics(environment.metrics());
+
+    final ValidationPlan validationPlan =
+        new ValidationPlan(Clock.systemDefaultZone(), phoneNumberCache);
+    final InputLimits inputLimits =
+        new InputLimits(
+            ds1500ControllerConfiguration.getMaxBodyBytes(),
+            ds1500ControllerConfiguration.getMaxFieldLength(),
+            ds1500ControllerConfiguration.getMaxNestingDepth(),
+            ds1500ControllerConfiguration.getMaxFieldCount(),
+            ds1500ControllerConfiguration.getMaxBatchBodyBytes(),
+            ds1500ControllerConfiguration.getMaxBatchItems());
+    inputLimits.registerMetrics(environment.metrics());
+
+    final Ds1500JsonValidator validator =
+        new Ds1500JsonValidator(validationPlan, new InputHelper(), inputLimits);
+    final IdGenerator idGenerator = new TimeOrderedIdGenerator();
+    final MetadataBuilder metadataBuilder = new MetadataBuilder(idGenerator);
+    final JsonCodec jsonCodec = new JsonCodec();
+
+    final ValidationWarmUp warmUp =
+        new ValidationWarmUp(
+            new Ds1500JsonValidator(
+                new ValidationPlan(
+                    Clock.systemDefaultZone(),
+                    new PhoneNumberCache(
+                        PhoneNumberUtil.getInstance(), 0, PhoneNumberCache.DEFAULT_TTL)),
+                new InputHelper(),
+                inputLimits),
+            metadataBuilder,
+            jsonCodec,
+            ds1500ControllerConfiguration.getWarmUpIterations());
+    environment.healthChecks().register("validationWarmUp", new WarmUpHealthCheck(warmUp));
+    environment
+        .metrics()
+        .register(
+            MetricRegistry.name(ValidationWarmUp.class, "durationMillis"),
+            (Gauge<Long>) warmUp::getDurationMillis);
+    environment.lifecycle().manage(warmUp);
+
+    final Executor publishExecutor;
+    if (isVirtualThreadsEnabled(ds1500ControllerConfiguration)) {
+      final ExecutorService virtualExecutor =
+          VirtualThreads.newThreadPerTaskExecutor("sns-publish-");
+      environment
+          .lifecycle()
+          .manage(new ExecutorServiceManager(virtualExecutor, Duration.seconds(5), "sns-publish"));
+      publishExecutor =
+          new BoundedExecutor(
+              virtualExecutor,
+              ds1500ControllerConfiguration.getPublishThreads()
+                  + ds1500ControllerConfiguration.getPublishQueueSize(),
+              ds1500ControllerConfiguration.getPublishRejectionPolicy());
+
+      final PinnedThreadMonitor pinnedThreadMonitor =
+          new PinnedThreadMonitor(
+              ds1500ControllerConfiguration.getPinnedThreadThreshold().toJavaDuration());
+      pinnedThreadMonitor.registerMetrics(environment.metrics());
+      environment.lifecycle().manage(pinnedThreadMonitor);
+
+    } else {
+      publishExecutor =
+          environment
+              .lifecycle()
+              .executorService("sns-publish-%d")
+              .minThreads(ds1500ControllerConfiguration.getPublishThreads())
+              .maxThreads(ds1500ControllerConfiguration.getPublishThreads())
+              .workQueue(
+                  new ArrayBlockingQueue<>(ds1500ControllerConfiguration.getPublishQueueSize()))
+              .rejectedExecutionHandler(
+                  ds1500ControllerConfiguration.getPublishRejectionPolicy().handler())
+              .build();
+    }
+
+    final PublishRetry publishRetry =
+        new PublishRetry(
+            ds1500ControllerConfiguration.getPublishMaxAttempts(),
+            ds1500ControllerConfiguration.getPublishRetryBaseDelay().toJavaDuration(),
+            ds1500ControllerConfiguration.getPublishRetryMaxDelay().toJavaDuration(),
+            ds1500ControllerConfiguration.getPublishDeadline().toJavaDuration());
+    publishRetry.registerMetrics(environment.metrics());
+
+    final PublishGuard publishGuard =
+        new PublishGuard(
+            new CircuitBreaker(
+                "sns-publish",
+                ds1500ControllerConfiguration.getPublishFailureRateThreshold(),
+                ds1500ControllerConfiguration.getPublishSlowCallRateThreshold(),
+                ds1500ControllerConfiguration.getPublishSlowCallThreshold().toJavaDuration(),
+                ds1500ControllerConfiguration.getPublishCircuitWindowSize(),
+                ds1500ControllerConfiguration.getPublishCircuitMinimumCalls(),
+                ds1500ControllerConfiguration.getPublishCircuitOpenDuration().toJavaDuration(),
+                ds1500ControllerConfiguration.getPublishHalfOpenCalls()),
+            ds1500ControllerConfiguration.getPublishMaxConcurrent());
+    publishGuard.registerMetrics(environment.metrics());
+
+    Outbox outbox = null;
+    if (ds1500ControllerConfiguration.isOutboxEnabled()) {
+      outbox =
+          new Outbox(
+              Paths.get(ds1500ControllerConfiguration.getOutboxDirectory()),
+              ds1500ControllerConfiguration.getOutboxSegmentBytes());
+      outbox.registerMetrics(environment.metrics());
+      environment.lifecycle().manage(new AutoCloseableManager(outbox));
+    }
+
+    final SubmissionStatusStore statusStore =
+        new SubmissionStatusStore(
+            ds1500ControllerConfiguration.getStatusStoreMaximumSize(),
+            ds1500ControllerConfiguration.getStatusStoreTtl().toJavaDuration());
+    statusStore.registerMetrics(environment.metrics());
+
+    final IdempotencyStore idempotencyStore =
+        new IdempotencyStore(
+            ds1500ControllerConfiguration.getIdempotencyMaximumSize(),
+            ds1500ControllerConfiguration.getIdempotencyWindow().toJavaDuration(),
+            ds1500ControllerConfiguration.getIdempotencyStripes());
+    idempotencyStore.registerMetrics(environment.metrics());
+
     final Ds1500ControllerResource instance =
         new Ds1500ControllerResource(
             ds1500ControllerConfiguration,
             snsPublisher,
             new PdfRetriever(pdfSslConnection),
             new PdfRetriever(feePdfSslConnection),
-            new Ds1500JsonValidator(),
-            new MetadataBuilder());
+            validator,
+            metadataBuilder,
+            jsonCodec,
+            new BatchPayloads(inputLimits),
+            publishExecutor,
+            outbox,
+            statusStore,
+            idempotencyStore,
+            idGenerator,
+            publishGuard,
+            publishRetry);
 
+    if (outbox != null) {
+      environment
+          .lifecycle()
+          .manage(
+              new OutboxDrainer(
+                  outbox,
+                  instance::publishOutboxEntry,
+                  ds1500ControllerConfiguration.getOutboxDrainBatchSize(),
+                  ds1500ControllerConfiguration.getOutboxRetryInterval().toJavaDuration(),
+                  ds1500ControllerConfiguration.getOutboxMaxPublishAttempts(),
+                  PublishRetry::isPermanent,
+                  instance::outboxEntryDeadLettered));
+    }
+
+    environment.jersey().register(new RequestSizeFilter(inputLimits));
+    environment.jersey().register(new WarmUpReadinessFilter(warmUp));
     environment.jersey().register(instance);
     environment.jersey().register(new HealthCheckResource());
 
@@ -92,6 +274,11 @@ public class Ds1500ControllerApplication extends Application<Ds1500ControllerCon
 
   }
 
+  private static boolean isVirtualThreadsEnabled(Ds1500ControllerConfiguration configuration) {
+    return configuration.getServerFactory() instanceof AbstractServerFactory
+        && ((AbstractServerFactory) configuration.getServerFactory()).isEnableVirtualThreads();
+  }
+
   @Override
   public void initialize(Bootstrap<Ds1500ControllerConfiguration> bootstrap) {
     bootstrap.setConfigurationSourceProvider(
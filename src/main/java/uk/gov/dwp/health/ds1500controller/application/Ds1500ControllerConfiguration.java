@@ -3,6 +3,10 @@ package uk.gov.dwp.health.ds1500controller.application;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import io.dropwizard.core.Configuration;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import uk.gov.dwp.crypto.SecureStrings;
 import uk.gov.dwp.health.crypto.CryptoConfig;
@@ -14,6 +18,7 @@ import javax.crypto.SealedObject;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("java:S2637") // NotNull constraint - class is populated by serialisation
 public class Ds1500ControllerConfiguration extends Configuration {
@@ -84,6 +89,166 @@ public class Ds1500ControllerConfiguration extends Configuration {
   @JsonProperty("applicationInfoEnabled")
   private boolean applicationInfoEnabled;
 
+  @Min(0)
+  @JsonProperty("phoneNumberCacheMaximumSize")
+  private long phoneNumberCacheMaximumSize = 10000;
+
+  @NotNull
+  @MinDuration(1)
+  @JsonProperty("phoneNumberCacheTtl")
+  private Duration phoneNumberCacheTtl = Duration.hours(12);
+
+  @Min(0)
+  @JsonProperty("warmUpIterations")
+  private int warmUpIterations = 2000;
+
+  @Min(1)
+  @JsonProperty("maxBodyBytes")
+  private int maxBodyBytes = 256 * 1024;
+
+  @Min(1)
+  @JsonProperty("maxFieldLength")
+  private int maxFieldLength = 32 * 1024;
+
+  @Min(1)
+  @JsonProperty("maxNestingDepth")
+  private int maxNestingDepth = 16;
+
+  @Min(1)
+  @JsonProperty("maxFieldCount")
+  private int maxFieldCount = 200;
+
+  @Min(1)
+  @JsonProperty("maxBatchBodyBytes")
+  private int maxBatchBodyBytes = 8 * 1024 * 1024;
+
+  @Min(1)
+  @JsonProperty("maxBatchItems")
+  private int maxBatchItems = 500;
+
+  @Min(1)
+  @JsonProperty("publishThreads")
+  private int publishThreads = 8;
+
+  @Min(1)
+  @JsonProperty("publishQueueSize")
+  private int publishQueueSize = 200;
+
+  @NotNull
+  @JsonProperty("publishRejectionPolicy")
+  private PublishRejectionPolicy publishRejectionPolicy = PublishRejectionPolicy.CALLER_RUNS;
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+  @JsonProperty("submissionTimeout")
+  private Duration submissionTimeout = Duration.seconds(30);
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+  @JsonProperty("pinnedThreadThreshold")
+  private Duration pinnedThreadThreshold = Duration.milliseconds(20);
+
+  @Min(1)
+  @Max(100)
+  @JsonProperty("publishFailureRateThreshold")
+  private int publishFailureRateThreshold = 50;
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+  @JsonProperty("publishSlowCallThreshold")
+  private Duration publishSlowCallThreshold = Duration.seconds(2);
+
+  @Min(1)
+  @Max(100)
+  @JsonProperty("publishSlowCallRateThreshold")
+  private int publishSlowCallRateThreshold = 80;
+
+  @Min(1)
+  @JsonProperty("publishCircuitWindowSize")
+  private int publishCircuitWindowSize = 20;
+
+  @Min(1)
+  @JsonProperty("publishCircuitMinimumCalls")
+  private int publishCircuitMinimumCalls = 10;
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+  @JsonProperty("publishCircuitOpenDuration")
+  private Duration publishCircuitOpenDuration = Duration.seconds(30);
+
+  @Min(1)
+  @JsonProperty("publishHalfOpenCalls")
+  private int publishHalfOpenCalls = 3;
+
+  @Min(1)
+  @JsonProperty("publishMaxConcurrent")
+  private int publishMaxConcurrent = 64;
+
+  @Min(1)
+  @JsonProperty("publishMaxAttempts")
+  private int publishMaxAttempts = 3;
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+  @JsonProperty("publishRetryBaseDelay")
+  private Duration publishRetryBaseDelay = Duration.milliseconds(50);
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+  @JsonProperty("publishRetryMaxDelay")
+  private Duration publishRetryMaxDelay = Duration.seconds(1);
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+  @JsonProperty("publishDeadline")
+  private Duration publishDeadline = Duration.seconds(5);
+
+  @JsonProperty("outboxEnabled")
+  private boolean outboxEnabled = false;
+
+  @NotNull
+  @JsonProperty("outboxDirectory")
+  private String outboxDirectory = "outbox";
+
+  @Min(1024)
+  @JsonProperty("outboxSegmentBytes")
+  private long outboxSegmentBytes = 64L * 1024 * 1024;
+
+  @Min(1)
+  @JsonProperty("outboxDrainBatchSize")
+  private int outboxDrainBatchSize = 100;
+
+  @NotNull
+  @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+  @JsonProperty("outboxRetryInterval")
+  private Duration outboxRetryInterval = Duration.seconds(5);
+
+  @Min(1)
+  @JsonProperty("outboxMaxPublishAttempts")
+  private int outboxMaxPublishAttempts = 10;
+
+  @Min(1)
+  @JsonProperty("statusStoreMaximumSize")
+  private long statusStoreMaximumSize = 100000;
+
+  @NotNull
+  @MinDuration(1)
+  @JsonProperty("statusStoreTtl")
+  private Duration statusStoreTtl = Duration.hours(24);
+
+  @Min(1)
+  @JsonProperty("idempotencyMaximumSize")
+  private long idempotencyMaximumSize = 10000;
+
+  @NotNull
+  @MinDuration(1)
+  @JsonProperty("idempotencyWindow")
+  private Duration idempotencyWindow = Duration.hours(1);
+
+  @Min(1)
+  @JsonProperty("idempotencyStripes")
+  private int idempotencyStripes = 16;
+
   public Ds1500ControllerConfiguration()
       throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException {
     // required to support 1.5.3+ of secure-strings
@@ -185,4 +350,152 @@ public class Ds1500ControllerConfiguration extends Configuration {
   public String getSnsSubject() {
     return snsSubject;
   }
+
+  public long getPhoneNumberCacheMaximumSize() {
+    return phoneNumberCacheMaximumSize;
+  }
+
+  public Duration getPhoneNumberCacheTtl() {
+    return phoneNumberCacheTtl;
+  }
+
+  public int getWarmUpIterations() {
+    return warmUpIterations;
+  }
+
+  public int getMaxBodyBytes() {
+    return maxBodyBytes;
+  }
+
+  public int getMaxFieldLength() {
+    return maxFieldLength;
+  }
+
+  public int getMaxNestingDepth() {
+    return maxNestingDepth;
+  }
+
+  public int getMaxFieldCount() {
+    return maxFieldCount;
+  }
+
+  public int getMaxBatchBodyBytes() {
+    return maxBatchBodyBytes;
+  }
+
+  public int getMaxBatchItems() {
+    return maxBatchItems;
+  }
+
+  public int getPublishThreads() {
+    return publishThreads;
+  }
+
+  public int getPublishQueueSize() {
+    return publishQueueSize;
+  }
+
+  public PublishRejectionPolicy getPublishRejectionPolicy() {
+    return publishRejectionPolicy;
+  }
+
+  public Duration getSubmissionTimeout() {
+    return submissionTimeout;
+  }
+
+  public Duration getPinnedThreadThreshold() {
+    return pinnedThreadThreshold;
+  }
+
+  public int getPublishFailureRateThreshold() {
+    return publishFailureRateThreshold;
+  }
+
+  public Duration getPublishSlowCallThreshold() {
+    return publishSlowCallThreshold;
+  }
+
+  public int getPublishSlowCallRateThreshold() {
+    return publishSlowCallRateThreshold;
+  }
+
+  public int getPublishCircuitWindowSize() {
+    return publishCircuitWindowSize;
+  }
+
+  public int getPublishCircuitMinimumCalls() {
+    return publishCircuitMinimumCalls;
+  }
+
+  public Duration getPublishCircuitOpenDuration() {
+    return publishCircuitOpenDuration;
+  }
+
+  public int getPublishHalfOpenCalls() {
+    return publishHalfOpenCalls;
+  }
+
+  public int getPublishMaxConcurrent() {
+    return publishMaxConcurrent;
+  }
+
+  public int getPublishMaxAttempts() {
+    return publishMaxAttempts;
+  }
+
+  public Duration getPublishRetryBaseDelay() {
+    return publishRetryBaseDelay;
+  }
+
+  public Duration getPublishRetryMaxDelay() {
+    return publishRetryMaxDelay;
+  }
+
+  public Duration getPublishDeadline() {
+    return publishDeadline;
+  }
+
+  public boolean isOutboxEnabled() {
+    return outboxEnabled;
+  }
+
+  public String getOutboxDirectory() {
+    return outboxDirectory;
+  }
+
+  public long getOutboxSegmentBytes() {
+    return outboxSegmentBytes;
+  }
+
+  public int getOutboxDrainBatchSize() {
+    return outboxDrainBatchSize;
+  }
+
+  public Duration getOutboxRetryInterval() {
+    return outboxRetryInterval;
+  }
+
+  public int getOutboxMaxPublishAttempts() {
+    return outboxMaxPublishAttempts;
+  }
+
+  public long getStatusStoreMaximumSize() {
+    return statusStoreMaximumSize;
+  }
+
+  public Duration getStatusStoreTtl() {
+    return statusStoreTtl;
+  }
+
+  public long getIdempotencyMaximumSize() {
+    return idempotencyMaximumSize;
+  }
+
+  public Duration getIdempotencyWindow() {
+    return idempotencyWindow;
+  }
+
+  public int getIdempotencyStripes() {
+    return idempotencyStripes;
+  }
 }
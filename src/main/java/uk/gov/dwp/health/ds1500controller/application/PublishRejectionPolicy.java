@@ -0,0 +1,34 @@
+package uk.gov.dwp.health.ds1500controller.application;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/** What happens to a submission when every publish thread is busy and the queue is full. */
+public enum PublishRejectionPolicy {
+  /**
+   * Publish on the request thread, as if the executor were not there. Once the executor has been
+   * shut down the submission is rejected instead, where {@link ThreadPoolExecutor.CallerRunsPolicy}
+   * would drop it without a word and leave the request waiting.
+   */
+  CALLER_RUNS {
+    @Override
+    RejectedExecutionHandler handler() {
+      return (task, executor) -> {
+        if (executor.isShutdown()) {
+          throw new RejectedExecutionException("Publish executor has been shut down");
+        }
+        task.run();
+      };
+    }
+  },
+  /** Turn the submission away with a 503 so the request thread is freed at once. */
+  ABORT {
+    @Override
+    RejectedExecutionHandler handler() {
+      return new ThreadPoolExecutor.AbortPolicy();
+    }
+  };
+
+  abstract RejectedExecutionHandler handler();
+}
@@ -1,6 +1,7 @@
 package uk.gov.dwp.health.ds1500controller.domain;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 
 import java.util.Arrays;
@@ -17,6 +18,12 @@ public class DSForm {
   @JsonView({DSForm.class, Views.DsFeeForm.class})
   private String dateOfBirth;
 
+  @JsonIgnore
+  private int packedDateOfBirth;
+
+  @JsonIgnore
+  private long packedNino;
+
   @JsonView({DSForm.class, Views.DsFeeForm.class})
   private String nINumber;
 
@@ -86,6 +93,15 @@ public class DSForm {
     return dateOfBirth;
   }
 
+  /** The validated date of birth as yyyymmdd, or 0 when the form was not built by validation. */
+  public int getPackedDateOfBirth() {
+    return packedDateOfBirth;
+  }
+
+  public long getPackedNino() {
+    return packedNino;
+  }
+
   public String getnINumber() {
     return nINumber;
   }
@@ -168,10 +184,20 @@ public class DSForm {
 
   public void setDateOfBirth(String dateOfBirth) {
     this.dateOfBirth = dateOfBirth;
+    this.packedDateOfBirth = 0;
+  }
+
+  public void setPackedDateOfBirth(int packedDateOfBirth) {
+    this.packedDateOfBirth = packedDateOfBirth;
   }
 
   public void setnINumber(String nINumber) {
     this.nINumber = nINumber;
+    this.packedNino = 0;
+  }
+
+  public void setPackedNino(long packedNino) {
+    this.packedNino = packedNino;
   }
 
   public void setAddress(String[] address) {
@@ -0,0 +1,13 @@
+package uk.gov.dwp.health.ds1500controller.domain;
+
+import java.util.Locale;
+
+public enum SubmissionStatus {
+  ACCEPTED,
+  PUBLISHED,
+  FAILED;
+
+  public String label() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
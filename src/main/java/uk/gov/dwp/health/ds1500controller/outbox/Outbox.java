@@ -0,0 +1,523 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of accepted submissions, kept in numbered segment files under one
+ * directory. Each record is its length, a CRC32 and the entry, and {@link #append} only returns
+ * once the record has been forced to disk. Appenders that arrive while a force is in progress are
+ * covered by the next one, so a burst of submissions shares a handful of fsyncs. An append that
+ * fails leaves nothing behind: a write that breaks off is cut back out of the segment, and a
+ * failed fsync cuts the segment back to what was last synced and moves on to a new one, failing
+ * every append still waiting on it, so no entry whose caller saw an error is ever drained.
+ *
+ * <p>The drainer reads forward from the acknowledged position, which is kept in its own file.
+ * Segments wholly before that position are deleted as it moves on. A restart always starts a new
+ * segment, and a record torn by a crash marks the end of the segment it is in. Entries the drainer
+ * gives up on are copied to a dead-letter file in the same record format before it moves past them.
+ */
+public class Outbox implements Closeable {
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final int COUNT_BATCH = 1000;
+  private static final String ACK_FILE = "acked";
+  private static final String ACK_TEMP_FILE = "acked.tmp";
+  private static final String DEAD_LETTER_FILE = "dead-letter.log";
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final SegmentOpener segmentOpener;
+  private final List<OutboxPosition> discardedFrom = new ArrayList<>();
+  private final AtomicLong backlog = new AtomicLong();
+  private final Meter appended = new Meter();
+  private final Meter drained = new Meter();
+  private final Meter deadLettered = new Meter();
+  private final Meter syncs = new Meter();
+
+  private FileChannel writer;
+  private boolean broken;
+  private OutboxPosition written;
+  private volatile OutboxPosition durable;
+  private volatile OutboxPosition acknowledged;
+  private volatile Runnable appendListener = () -> {};
+
+  public Outbox(Path directory, long segmentBytes) throws IOException {
+    this(
+        directory,
+        segmentBytes,
+        file -> FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+  }
+
+  Outbox(Path directory, long segmentBytes, SegmentOpener segmentOpener) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.segmentBytes = segmentBytes;
+    this.segmentOpener = segmentOpener;
+
+    acknowledged = readAcknowledged();
+    long lastSegment = acknowledged.getSegment();
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        long segment = segmentNumber(file);
+        if (segment >= 0) {
+          lastSegment = Math.max(lastSegment, segment);
+        }
+      }
+    }
+    deleteSegmentsBefore(acknowledged.getSegment());
+
+    written = new OutboxPosition(lastSegment + 1, 0);
+    durable = written;
+    writer = openSegment(written.getSegment());
+    backlog.set(countFrom(acknowledged));
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(Outbox.class, "backlog"), (Gauge<Long>) backlog::get);
+    metrics.register(MetricRegistry.name(Outbox.class, "appended"), appended);
+    metrics.register(MetricRegistry.name(Outbox.class, "drained"), drained);
+    metrics.register(MetricRegistry.name(Outbox.class, "deadLettered"), deadLettered);
+    metrics.register(MetricRegistry.name(Outbox.class, "syncs"), syncs);
+  }
+
+  /** Called after every fsync that makes new entries readable. */
+  void setAppendListener(Runnable appendListener) {
+    this.appendListener = appendListener;
+  }
+
+  /** Writes the entry and returns once it is on disk. */
+  public void append(OutboxEntry entry) throws IOException {
+    appendAll(List.of(entry));
+  }
+
+  /**
+   * Writes the entries in order and returns once all of them are on disk, sharing one sync. The
+   * entries are written as one unit, so if this throws none of them will be drained.
+   */
+  public void appendAll(List<OutboxEntry> entries) throws IOException {
+    if (entries.isEmpty()) {
+      return;
+    }
+    syncTo(write(records(entries)));
+    backlog.addAndGet(entries.size());
+    appended.mark(entries.size());
+  }
+
+  private static ByteBuffer records(List<OutboxEntry> entries) {
+    List<byte[]> bodies = new ArrayList<>(entries.size());
+    int size = 0;
+    for (OutboxEntry entry : entries) {
+      byte[] body =
+          (entry.getCorrelationId() + "\n" + entry.getDrsPayloadJson())
+              .getBytes(StandardCharsets.UTF_8);
+      bodies.add(body);
+      size += HEADER_BYTES + body.length;
+    }
+
+    ByteBuffer records = ByteBuffer.allocate(size);
+    for (byte[] body : bodies) {
+      CRC32 crc = new CRC32();
+      crc.update(body);
+      records.putInt(body.length).putInt((int) crc.getValue()).put(body);
+    }
+    return records.flip();
+  }
+
+  private OutboxPosition write(ByteBuffer record) throws IOException {
+    writeLock.lock();
+    try {
+      if (!needsRotation(record.remaining())) {
+        return writeRecord(record);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+
+    // rotation closes the segment being synced, so it takes the sync lock first as syncTo does
+    syncLock.lock();
+    try {
+      writeLock.lock();
+      try {
+        if (needsRotation(record.remaining())) {
+          writer.force(false);
+          durable = written;
+          startNextSegment();
+        }
+        return writeRecord(record);
+
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private boolean needsRotation(int recordBytes) {
+    return broken || written.getOffset() > 0 && written.getOffset() + recordBytes > segmentBytes;
+  }
+
+  private OutboxPosition writeRecord(ByteBuffer record) throws IOException {
+    try {
+      while (record.hasRemaining()) {
+        writer.write(record);
+      }
+
+    } catch (IOException e) {
+      // cut the partial write back out so the next record does not land behind a torn one
+      try {
+        writer.truncate(written.getOffset());
+        writer.position(written.getOffset());
+      } catch (IOException truncateFailure) {
+        e.addSuppressed(truncateFailure);
+        broken = true;
+      }
+      throw e;
+    }
+    written = new OutboxPosition(written.getSegment(), writer.position());
+    return written;
+  }
+
+  /** Closes the current segment and starts the next; the caller holds both locks. */
+  private void startNextSegment() throws IOException {
+    writer.close();
+    written = new OutboxPosition(written.getSegment() + 1, 0);
+    writer = openSegment(written.getSegment());
+    broken = false;
+  }
+
+  private void syncTo(OutboxPosition end) throws IOException {
+    syncLock.lock();
+    try {
+      if (wasDiscarded(end)) {
+        throw new IOException("Outbox entries were discarded after a failed sync");
+      }
+      if (durable.compareTo(end) >= 0) {
+        return;
+      }
+      FileChannel channel;
+      OutboxPosition upTo;
+      writeLock.lock();
+      try {
+        channel = writer;
+        upTo = written;
+      } finally {
+        writeLock.unlock();
+      }
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        discardUnsynced(e);
+        throw e;
+      }
+      durable = upTo;
+      syncs.mark();
+
+    } finally {
+      syncLock.unlock();
+    }
+    appendListener.run();
+  }
+
+  private boolean wasDiscarded(OutboxPosition end) {
+    for (OutboxPosition from : discardedFrom) {
+      if (from.getSegment() == end.getSegment() && from.getOffset() < end.getOffset()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Cuts the current segment back to the last sync and starts a new one, after a failed fsync has
+   * left it unknown which of the later writes reached the disk. The caller holds the sync lock.
+   */
+  private void discardUnsynced(IOException failure) {
+    writeLock.lock();
+    try {
+      long syncedBytes = durable.getSegment() == written.getSegment() ? durable.getOffset() : 0;
+      discardedFrom.add(new OutboxPosition(written.getSegment(), syncedBytes));
+      writer.truncate(syncedBytes);
+      writer.force(false);
+      startNextSegment();
+      durable = written;
+
+    } catch (IOException e) {
+      failure.addSuppressed(e);
+      broken = true;
+
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /** Up to {@code maxEntries} durable entries that follow {@code from}, in the order appended. */
+  List<OutboxEntry> read(OutboxPosition from, int maxEntries) throws IOException {
+    List<OutboxEntry> entries = new ArrayList<>();
+    OutboxPosition readable = durable;
+    long segment = from.getSegment();
+    long offset = from.getOffset();
+
+    while (entries.size() < maxEntries && segment <= readable.getSegment()) {
+      Path file = segmentFile(segment);
+      if (Files.exists(file)) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          long limit = segment == readable.getSegment() ? readable.getOffset() : channel.size();
+          OutboxEntry entry = readRecord(channel, segment, offset, limit);
+          while (entry != null) {
+            entries.add(entry);
+            offset = entry.getEnd().getOffset();
+            if (entries.size() == maxEntries) {
+              return entries;
+            }
+            entry = readRecord(channel, segment, offset, limit);
+          }
+        }
+      }
+      segment++;
+      offset = 0;
+    }
+    return entries;
+  }
+
+  private static OutboxEntry readRecord(FileChannel channel, long segment, long offset, long limit)
+      throws IOException {
+    if (offset + HEADER_BYTES > limit) {
+      return null;
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    readFully(channel, header, offset);
+    int length = header.getInt(0);
+    if (length < 0 || offset + HEADER_BYTES + length > limit) {
+      return null;
+    }
+
+    ByteBuffer body = ByteBuffer.allocate(length);
+    readFully(channel, body, offset + HEADER_BYTES);
+    CRC32 crc = new CRC32();
+    crc.update(body.array());
+    if ((int) crc.getValue() != header.getInt(Integer.BYTES)) {
+      return null;
+    }
+
+    String record = new String(body.array(), StandardCharsets.UTF_8);
+    int separator = record.indexOf('\n');
+    return new OutboxEntry(
+        record.substring(0, separator),
+        record.substring(separator + 1),
+        new OutboxPosition(segment, offset + HEADER_BYTES + length));
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Outbox segment ended mid-record");
+      }
+    }
+  }
+
+  /**
+   * Records that everything up to and including the last of {@code entries} has been published,
+   * and deletes any segment that now lies wholly before it.
+   */
+  void acknowledge(List<OutboxEntry> entries) throws IOException {
+    if (entries.isEmpty()) {
+      return;
+    }
+    OutboxPosition end = entries.get(entries.size() - 1).getEnd();
+    ByteBuffer position = ByteBuffer.allocate(2 * Long.BYTES);
+    position.putLong(end.getSegment()).putLong(end.getOffset()).flip();
+
+    Path temp = directory.resolve(ACK_TEMP_FILE);
+    try (FileChannel channel =
+        FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (position.hasRemaining()) {
+        channel.write(position);
+      }
+      channel.force(false);
+    }
+    Files.move(
+        temp,
+        directory.resolve(ACK_FILE),
+        StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+    syncDirectory();
+
+    acknowledged = end;
+    backlog.addAndGet(-entries.size());
+    drained.mark(entries.size());
+    deleteSegmentsBefore(end.getSegment());
+  }
+
+  /**
+   * Parks an entry that will not be published in the dead-letter file and returns once it is on
+   * disk. The entry stays in its segment until the caller acknowledges past it.
+   */
+  void deadLetter(OutboxEntry entry) throws IOException {
+    Path file = directory.resolve(DEAD_LETTER_FILE);
+    boolean created = !Files.exists(file);
+    ByteBuffer record = records(List.of(entry));
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND)) {
+      long start = channel.size();
+      try {
+        while (record.hasRemaining()) {
+          channel.write(record);
+        }
+        channel.force(false);
+      } catch (IOException e) {
+        try {
+          channel.truncate(start);
+        } catch (IOException truncateFailure) {
+          e.addSuppressed(truncateFailure);
+        }
+        throw e;
+      }
+    }
+    if (created) {
+      syncDirectory();
+    }
+    deadLettered.mark();
+  }
+
+  /** The entries parked by {@link #deadLetter}, oldest first. */
+  List<OutboxEntry> readDeadLetters() throws IOException {
+    List<OutboxEntry> entries = new ArrayList<>();
+    Path file = directory.resolve(DEAD_LETTER_FILE);
+    if (!Files.exists(file)) {
+      return entries;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      OutboxEntry entry = readRecord(channel, 0, 0, channel.size());
+      while (entry != null) {
+        entries.add(entry);
+        entry = readRecord(channel, 0, entry.getEnd().getOffset(), channel.size());
+      }
+    }
+    return entries;
+  }
+
+  OutboxPosition getAcknowledged() {
+    return acknowledged;
+  }
+
+  public long getBacklog() {
+    return backlog.get();
+  }
+
+  public long getSyncCount() {
+    return syncs.getCount();
+  }
+
+  @Override
+  public void close() throws IOException {
+    // closing the segment while a sync is forcing it would fail that sync, so wait for it
+    syncLock.lock();
+    try {
+      writeLock.lock();
+      try {
+        writer.force(false);
+        writer.close();
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private OutboxPosition readAcknowledged() throws IOException {
+    Path file = directory.resolve(ACK_FILE);
+    if (!Files.exists(file)) {
+      return new OutboxPosition(0, 0);
+    }
+    ByteBuffer position = ByteBuffer.wrap(Files.readAllBytes(file));
+    return new OutboxPosition(position.getLong(), position.getLong());
+  }
+
+  private long countFrom(OutboxPosition from) throws IOException {
+    long count = 0;
+    List<OutboxEntry> entries = read(from, COUNT_BATCH);
+    while (!entries.isEmpty()) {
+      count += entries.size();
+      entries = read(entries.get(entries.size() - 1).getEnd(), COUNT_BATCH);
+    }
+    return count;
+  }
+
+  private void deleteSegmentsBefore(long segment) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        long number = segmentNumber(file);
+        if (number >= 0 && number < segment) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  private FileChannel openSegment(long segment) throws IOException {
+    FileChannel channel = segmentOpener.open(segmentFile(segment));
+    syncDirectory();
+    return channel;
+  }
+
+  /** Forces the directory itself, so that a new or renamed file survives a crash. */
+  private void syncDirectory() throws IOException {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
+  private Path segmentFile(long segment) {
+    return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+  }
+
+  private static long segmentNumber(Path file) {
+    String name = file.getFileName().toString();
+    if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(
+          name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /** Opens a new segment file for writing; tests substitute channels that fail on demand. */
+  @FunctionalInterface
+  interface SegmentOpener {
+    FileChannel open(Path file) throws IOException;
+  }
+}
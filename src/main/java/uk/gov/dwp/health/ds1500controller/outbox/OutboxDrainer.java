@@ -0,0 +1,177 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Publishes outbox entries in the order they were accepted, on a single background thread. The
+ * thread wakes as soon as new entries are durable; if publishing fails it acknowledges what did
+ * go out and retries the rest after the retry interval, so an SNS outage only grows the backlog.
+ * An entry that fails permanently, or fails {@code maxAttempts} times in a row, is moved to the
+ * outbox's dead-letter file and acknowledged so that it cannot hold up the entries behind it; a
+ * {@link PublishHeldBackException} is not counted as an attempt. The dead-letter listener hears of
+ * each entry given up on. Entries published just before a crash may be published again after the
+ * restart.
+ */
+public class OutboxDrainer implements Managed, Runnable {
+  private static final Logger LOG = LoggerFactory.getLogger(OutboxDrainer.class);
+
+  private final Outbox outbox;
+  private final OutboxPublisher publisher;
+  private final int batchSize;
+  private final Duration retryInterval;
+  private final int maxAttempts;
+  private final Predicate<Exception> permanentFailure;
+  private final Consumer<OutboxEntry> deadLetterListener;
+  private final List<OutboxEntry> pending = new ArrayList<>();
+  private OutboxPosition cursor;
+  private int failedAttempts;
+  private volatile boolean running;
+  private Thread thread;
+
+  public OutboxDrainer(
+      Outbox outbox,
+      OutboxPublisher publisher,
+      int batchSize,
+      Duration retryInterval,
+      int maxAttempts,
+      Predicate<Exception> permanentFailure,
+      Consumer<OutboxEntry> deadLetterListener) {
+    this.outbox = outbox;
+    this.publisher = publisher;
+    this.batchSize = batchSize;
+    this.retryInterval = retryInterval;
+    this.maxAttempts = maxAttempts;
+    this.permanentFailure = permanentFailure;
+    this.deadLetterListener = deadLetterListener;
+    this.cursor = outbox.getAcknowledged();
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    thread = new Thread(this, "outbox-drainer");
+    thread.setDaemon(true);
+    outbox.setAppendListener(() -> LockSupport.unpark(thread));
+    thread.start();
+  }
+
+  @Override
+  public void stop() throws InterruptedException {
+    running = false;
+    outbox.setAppendListener(() -> {});
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      thread.join(retryInterval.toMillis() + 1000);
+    }
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      boolean pause;
+      try {
+        pause = drainOnce() == 0 || !pending.isEmpty();
+
+      } catch (IOException e) {
+        LOG.error("Unable to read or acknowledge the outbox :: {}", e.getMessage());
+        LOG.debug(e.getClass().getName(), e);
+        pause = true;
+      }
+
+      if (pause && running) {
+        LockSupport.parkNanos(retryInterval.toNanos());
+      }
+    }
+  }
+
+  /**
+   * Publishes the next batch, or what is left of the last one, and acknowledges every entry that
+   * went out or was dead-lettered. Returns how many were acknowledged; the entry that failed and
+   * those after it stay pending.
+   */
+  int drainOnce() throws IOException {
+    if (pending.isEmpty()) {
+      pending.addAll(outbox.read(cursor, batchSize));
+      if (pending.isEmpty()) {
+        return 0;
+      }
+      cursor = pending.get(pending.size() - 1).getEnd();
+    }
+
+    int handled = 0;
+    for (OutboxEntry entry : pending) {
+      if (!handle(entry)) {
+        break;
+      }
+      handled++;
+    }
+
+    List<OutboxEntry> done = pending.subList(0, handled);
+    outbox.acknowledge(done);
+    done.clear();
+    return handled;
+  }
+
+  /** Returns whether the entry is finished with, either published or dead-lettered. */
+  private boolean handle(OutboxEntry entry) {
+    try {
+      publisher.publish(entry);
+      failedAttempts = 0;
+      return true;
+
+    } catch (PublishHeldBackException e) {
+      LOG.warn(
+          "Publishing outbox entry {} held back :: {}", entry.getCorrelationId(), e.getMessage());
+      return false;
+
+    } catch (Exception e) {
+      failedAttempts++;
+      LOG.debug(e.getClass().getName(), e);
+      if (!permanentFailure.test(e) && failedAttempts < maxAttempts) {
+        LOG.error(
+            "Publishing outbox entry {} failed (attempt {} of {}), will retry :: {}",
+            entry.getCorrelationId(),
+            failedAttempts,
+            maxAttempts,
+            e.getMessage());
+        return false;
+      }
+      return deadLetter(entry, e);
+    }
+  }
+
+  private boolean deadLetter(OutboxEntry entry, Exception failure) {
+    try {
+      outbox.deadLetter(entry);
+    } catch (IOException e) {
+      LOG.error(
+          "Unable to dead-letter outbox entry {}, will retry :: {}",
+          entry.getCorrelationId(),
+          e.getMessage());
+      LOG.debug(e.getClass().getName(), e);
+      return false;
+    }
+    LOG.error(
+        "Outbox entry {} dead-lettered after {} failed attempt(s) :: {}",
+        entry.getCorrelationId(),
+        failedAttempts,
+        failure.getMessage());
+    failedAttempts = 0;
+    deadLetterListener.accept(entry);
+    return true;
+  }
+
+  int getPendingCount() {
+    return pending.size();
+  }
+}
@@ -0,0 +1,30 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+/** A submission waiting in the outbox: its correlation id and the DRS payload to publish. */
+public class OutboxEntry {
+  private final String correlationId;
+  private final String drsPayloadJson;
+  private final OutboxPosition end;
+
+  public OutboxEntry(String correlationId, String drsPayloadJson) {
+    this(correlationId, drsPayloadJson, null);
+  }
+
+  OutboxEntry(String correlationId, String drsPayloadJson, OutboxPosition end) {
+    this.correlationId = correlationId;
+    this.drsPayloadJson = drsPayloadJson;
+    this.end = end;
+  }
+
+  public String getCorrelationId() {
+    return correlationId;
+  }
+
+  public String getDrsPayloadJson() {
+    return drsPayloadJson;
+  }
+
+  OutboxPosition getEnd() {
+    return end;
+  }
+}
@@ -0,0 +1,50 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+import java.util.Objects;
+
+/** A byte offset within a numbered outbox segment. */
+final class OutboxPosition implements Comparable<OutboxPosition> {
+  private final long segment;
+  private final long offset;
+
+  OutboxPosition(long segment, long offset) {
+    this.segment = segment;
+    this.offset = offset;
+  }
+
+  long getSegment() {
+    return segment;
+  }
+
+  long getOffset() {
+    return offset;
+  }
+
+  @Override
+  public int compareTo(OutboxPosition other) {
+    int bySegment = Long.compare(segment, other.segment);
+    return bySegment != 0 ? bySegment : Long.compare(offset, other.offset);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof OutboxPosition)) {
+      return false;
+    }
+    OutboxPosition position = (OutboxPosition) other;
+    return segment == position.segment && offset == position.offset;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(segment, offset);
+  }
+
+  @Override
+  public String toString() {
+    return segment + ":" + offset;
+  }
+}
@@ -0,0 +1,10 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+/**
+ * Sends one outbox entry on; any exception leaves the entry in the outbox for the drainer to retry
+ * or, once it has failed for good, to dead-letter.
+ */
+@FunctionalInterface
+public interface OutboxPublisher {
+  void publish(OutboxEntry entry) throws Exception;
+}
@@ -0,0 +1,12 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+/**
+ * Thrown by an {@link OutboxPublisher} that is not publishing for now, such as while the SNS
+ * circuit breaker is open. The entry is retried later without this counting as a failed attempt.
+ */
+public class PublishHeldBackException extends Exception {
+
+  public PublishHeldBackException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,11 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import java.util.UUID;
+
+/** Makes the correlation id and DRS claim reference given to each submission. */
+public interface IdGenerator {
+  UUID correlationId();
+
+  /** 30 characters drawn from A-Z, a-z and 0-9. */
+  String claimRef();
+}
@@ -4,26 +4,42 @@ import org.apache.commons.text.StringEscapeUtils;
 import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidCharactersException;
 
 public class InputHelper {
+  private static final int MAX_WORD_LENGTH = 58;
+
+  /**
+   * Rejects any word (a run of characters between regex {@code \s} whitespace) longer than 58
+   * characters and HTML 4 escapes the rest. Word lengths and escapable characters are found in a
+   * single scan; input with nothing to escape is returned as the same instance.
+   */
   public String cleanInput(String input) throws InvalidCharactersException {
-    String cleanedString;
-    if (isValid(input)) {
-      cleanedString = StringEscapeUtils.escapeHtml4(input);
-    } else {
-      throw new InvalidCharactersException(
-          String.format("Provided Input (%s) fails character content validation checks", input));
+    if (input == null || input.isEmpty()) {
+      return input;
     }
-    return cleanedString;
-  }
 
-  private boolean isValid(String textAreaField) {
-    if (textAreaField == null || textAreaField.isEmpty()) {
-      return true;
-    }
-    for (String retval : textAreaField.split("\\s+")) {
-      if (retval.length() > 58) {
-        return false;
+    boolean needsEscaping = false;
+    int wordLength = 0;
+    for (int i = 0; i < input.length(); i++) {
+      char c = input.charAt(i);
+      if (isWhitespace(c)) {
+        wordLength = 0;
+      } else {
+        if (++wordLength > MAX_WORD_LENGTH) {
+          throw new InvalidCharactersException(
+              String.format(
+                  "Provided Input (%s) fails character content validation checks", input));
+        }
+        needsEscaping |= mayNeedEscaping(c);
       }
     }
-    return true;
+
+    return needsEscaping ? StringEscapeUtils.escapeHtml4(input) : input;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+
+  private static boolean mayNeedEscaping(char c) {
+    return c == '"' || c == '&' || c == '<' || c == '>' || c > '~';
   }
 }
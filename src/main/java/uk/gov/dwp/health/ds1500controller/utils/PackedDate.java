@@ -0,0 +1,100 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Calendar dates packed into a single {@code int} as yyyymmdd, so ordering, year and age checks
+ * are plain integer arithmetic. {@link #INVALID} marks a value that is not a real date.
+ */
+public final class PackedDate {
+  public static final int INVALID = 0;
+
+  private static final int MAX_PART_DIGITS = 9;
+  private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+  private PackedDate() {}
+
+  public static int of(int year, int month, int day) {
+    if (year < 1 || year > 9999 || month < 1 || month > 12) {
+      return INVALID;
+    }
+    if (day < 1 || day > lengthOfMonth(year, month)) {
+      return INVALID;
+    }
+    return year * 10000 + month * 100 + day;
+  }
+
+  public static int of(LocalDate date) {
+    return of(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+  }
+
+  public static int today(Clock clock) {
+    return of(LocalDate.now(clock));
+  }
+
+  /**
+   * Packs the day, month and year as entered on the form. Each part must be ASCII digits only and
+   * the year at least four of them; anything else, or a date that doesn't exist, is {@link
+   * #INVALID}.
+   */
+  public static int parse(String day, String month, String year) {
+    if (year == null || year.length() < 4) {
+      return INVALID;
+    }
+    int dayValue = digits(day);
+    int monthValue = digits(month);
+    int yearValue = digits(year);
+    if (dayValue < 0 || monthValue < 0 || yearValue < 0) {
+      return INVALID;
+    }
+    return of(yearValue, monthValue, dayValue);
+  }
+
+  /** Packs a day/month/year string, the format the form dates are held in. */
+  public static int parse(String formDate) {
+    if (formDate == null) {
+      return INVALID;
+    }
+    int firstSlash = formDate.indexOf('/');
+    int secondSlash = formDate.indexOf('/', firstSlash + 1);
+    if (firstSlash < 0 || secondSlash < 0) {
+      return INVALID;
+    }
+    return parse(
+        formDate.substring(0, firstSlash),
+        formDate.substring(firstSlash + 1, secondSlash),
+        formDate.substring(secondSlash + 1));
+  }
+
+  public static int year(int packedDate) {
+    return packedDate / 10000;
+  }
+
+  /** Completed years from {@code from} to {@code to}, as {@code Period.between(..).getYears()}. */
+  public static int yearsBetween(int from, int to) {
+    return (to - from) / 10000;
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+      return 29;
+    }
+    return DAYS_IN_MONTH[month - 1];
+  }
+
+  private static int digits(String part) {
+    if (part == null || part.isEmpty() || part.length() > MAX_PART_DIGITS) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = 0; i < part.length(); i++) {
+      char c = part.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
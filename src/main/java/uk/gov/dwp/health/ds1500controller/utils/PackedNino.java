@@ -0,0 +1,112 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+/**
+ * National Insurance numbers packed into a single {@code long}: the two letter prefix, the six
+ * digits and the optional A-D suffix. Parsing walks the characters once against a lookup table, so
+ * a valid number is never checked twice and the body and suffix come back without re-matching.
+ * {@link #INVALID} marks a value that is not a NINO.
+ */
+public final class PackedNino {
+  public static final long INVALID = 0;
+
+  private static final int FIRST_LETTER = 1;
+  private static final int SECOND_LETTER = 2;
+  private static final int DIGIT = 4;
+  private static final int SUFFIX = 8;
+
+  private static final int[] POSITIONS = {
+    FIRST_LETTER, SECOND_LETTER, DIGIT, DIGIT, DIGIT, DIGIT, DIGIT, DIGIT, SUFFIX
+  };
+  private static final int BODY_LENGTH = 8;
+  private static final int DIGITS = 1_000_000;
+  private static final int SUFFIXES = 5;
+
+  private static final byte[] CHARACTER_CLASSES = new byte[128];
+  private static final boolean[] EXCLUDED_PREFIXES = new boolean[26 * 26];
+
+  static {
+    mark("ABCEGHJKLMNOPRSTWXYZ", FIRST_LETTER);
+    mark("ABCEGHJKLMNPRSTWXYZ", SECOND_LETTER);
+    mark("0123456789", DIGIT);
+    mark("ABCD", SUFFIX);
+    for (String prefix : new String[] {"BG", "GB", "NK", "KN", "TN", "NT", "ZZ"}) {
+      EXCLUDED_PREFIXES[letter(prefix.charAt(0)) * 26 + letter(prefix.charAt(1))] = true;
+    }
+  }
+
+  private PackedNino() {}
+
+  /**
+   * Packs a NINO as entered, in either case and with any spaces ignored. Anything that is not two
+   * valid prefix letters, six digits and an optional A-D suffix is {@link #INVALID}.
+   */
+  public static long parse(CharSequence nino) {
+    if (nino == null) {
+      return INVALID;
+    }
+
+    int position = 0;
+    int prefix = 0;
+    int digits = 0;
+    int suffix = 0;
+    for (int i = 0; i < nino.length(); i++) {
+      char c = nino.charAt(i);
+      if (c == ' ') {
+        continue;
+      }
+      if (position == POSITIONS.length
+          || c >= CHARACTER_CLASSES.length
+          || (CHARACTER_CLASSES[c] & POSITIONS[position]) == 0) {
+        return INVALID;
+      }
+
+      if (position < 2) {
+        prefix = prefix * 26 + letter(c);
+      } else if (position < BODY_LENGTH) {
+        digits = digits * 10 + c - '0';
+      } else {
+        suffix = letter(c) + 1;
+      }
+      position++;
+    }
+
+    if (position < BODY_LENGTH || EXCLUDED_PREFIXES[prefix]) {
+      return INVALID;
+    }
+    return ((long) prefix * DIGITS + digits) * SUFFIXES + suffix + 1;
+  }
+
+  /** The upper case prefix and digits, such as AA370773. */
+  public static String body(long nino) {
+    long value = (nino - 1) / SUFFIXES;
+    int prefix = (int) (value / DIGITS);
+    int digits = (int) (value % DIGITS);
+
+    char[] body = new char[BODY_LENGTH];
+    body[0] = (char) ('A' + prefix / 26);
+    body[1] = (char) ('A' + prefix % 26);
+    for (int i = BODY_LENGTH - 1; i > 1; i--) {
+      body[i] = (char) ('0' + digits % 10);
+      digits /= 10;
+    }
+    return new String(body);
+  }
+
+  /** The upper case suffix letter, or an empty string when the NINO was entered without one. */
+  public static String suffix(long nino) {
+    int suffix = (int) ((nino - 1) % SUFFIXES);
+    return suffix == 0 ? "" : String.valueOf((char) ('A' + suffix - 1));
+  }
+
+  private static int letter(char c) {
+    return (c | 0x20) - 'a';
+  }
+
+  private static void mark(String characters, int characterClass) {
+    for (int i = 0; i < characters.length(); i++) {
+      char c = characters.charAt(i);
+      CHARACTER_CLASSES[c] |= characterClass;
+      CHARACTER_CLASSES[Character.toLowerCase(c)] |= characterClass;
+    }
+  }
+}
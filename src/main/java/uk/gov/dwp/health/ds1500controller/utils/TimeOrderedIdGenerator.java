@@ -0,0 +1,71 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Correlation ids as version 7 UUIDs and claim references as 30 alphanumerics, both drawn from
+ * {@link ThreadLocalRandom} so concurrent submissions never queue on a shared generator the way
+ * {@code UUID.randomUUID()} and {@code RandomStringUtils} do.
+ *
+ * <p>A correlation id is the Unix time in milliseconds followed by 74 random bits, so ids sort by
+ * the millisecond they were made in, though not within it. Two ids can only be equal if they are
+ * made in the same millisecond and their 74 random bits match; a salt read once from {@link
+ * SecureRandom} is mixed into those bits so that separate instances do not follow one another. A
+ * claim reference carries about 178 random bits. Duplicates of either are therefore vanishingly
+ * unlikely, but neither is unguessable and must not be used as a secret.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+  static final int CLAIM_REF_LENGTH = 30;
+  private static final char[] ALPHABET =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+  private static final int CHARS_PER_DRAW = 10;
+  private static final long DRAW_BOUND = pow(ALPHABET.length, CHARS_PER_DRAW);
+  private static final long VERSION_7 = 0x7000L;
+  private static final long VARIANT_BITS = 0x8000_0000_0000_0000L;
+  private static final long RANDOM_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+  private final Clock clock;
+  private final long salt = new SecureRandom().nextLong();
+
+  public TimeOrderedIdGenerator() {
+    this(Clock.systemUTC());
+  }
+
+  TimeOrderedIdGenerator(Clock clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public UUID correlationId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long mostSignificant = (clock.millis() << 16) | VERSION_7 | random.nextInt(1 << 12);
+    long leastSignificant = ((random.nextLong() ^ salt) & RANDOM_B_MASK) | VARIANT_BITS;
+    return new UUID(mostSignificant, leastSignificant);
+  }
+
+  /** Fills ten characters from each draw of a base-62 number, three draws per reference. */
+  @Override
+  public String claimRef() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    char[] claimRef = new char[CLAIM_REF_LENGTH];
+    for (int start = 0; start < CLAIM_REF_LENGTH; start += CHARS_PER_DRAW) {
+      long draw = random.nextLong(DRAW_BOUND);
+      for (int i = start; i < start + CHARS_PER_DRAW; i++) {
+        claimRef[i] = ALPHABET[(int) (draw % ALPHABET.length)];
+        draw /= ALPHABET.length;
+      }
+    }
+    return new String(claimRef);
+  }
+
+  private static long pow(int base, int exponent) {
+    long result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= base;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,111 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+/**
+ * UK postcode format check driven by a character class table rather than a regular expression.
+ * The inward code is always the last three characters, so the outward code is whatever precedes
+ * it, less one optional space.
+ */
+public final class UkPostcode {
+  private static final int DIGIT = 1;
+  private static final int AREA_FIRST = 2;
+  private static final int AREA_SECOND = 4;
+  private static final int DISTRICT_AFTER_DIGIT = 8;
+  private static final int DISTRICT_AFTER_AREA = 16;
+  private static final int UNIT = 32;
+
+  private static final int INWARD_LENGTH = 3;
+  private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+  static {
+    mark("0123456789", DIGIT | DISTRICT_AFTER_AREA);
+    mark("ABCDEFGHIJKLMNOPRSTUWYZ", AREA_FIRST);
+    mark("ABCDEFGHKLMNOPQRSTUVWXY", AREA_SECOND);
+    mark("ABCDEFGHJKPSTUW", DISTRICT_AFTER_DIGIT);
+    mark("ABEHMNPRVWXY", DISTRICT_AFTER_AREA);
+    mark("ABDEFGHJLNPQRSTUWXYZ", UNIT);
+  }
+
+  private UkPostcode() {}
+
+  /**
+   * Whether the value, ignoring surrounding whitespace and case, is a UK postcode with at most one
+   * space between the outward and inward codes. GIR 0AA is accepted as the one special case.
+   */
+  public static boolean isValid(CharSequence postcode) {
+    if (postcode == null) {
+      return false;
+    }
+
+    int start = 0;
+    int end = postcode.length();
+    while (start < end && postcode.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && postcode.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    int inward = end - INWARD_LENGTH;
+    if (inward - start < 2) {
+      return false;
+    }
+    int outwardEnd = postcode.charAt(inward - 1) == ' ' ? inward - 1 : inward;
+
+    if (!is(postcode, inward, DIGIT)
+        || !is(postcode, inward + 1, UNIT)
+        || !is(postcode, inward + 2, UNIT)) {
+      return false;
+    }
+    return isOutwardCode(postcode, start, outwardEnd - start)
+        || isGiro(postcode, start, outwardEnd, inward);
+  }
+
+  private static boolean isOutwardCode(CharSequence postcode, int start, int length) {
+    if (!is(postcode, start, AREA_FIRST)) {
+      return false;
+    }
+    switch (length) {
+      case 2:
+        return is(postcode, start + 1, DIGIT);
+      case 3:
+        return is(postcode, start + 1, DIGIT)
+                && is(postcode, start + 2, DIGIT | DISTRICT_AFTER_DIGIT)
+            || is(postcode, start + 1, AREA_SECOND) && is(postcode, start + 2, DIGIT);
+      case 4:
+        return is(postcode, start + 1, AREA_SECOND)
+            && is(postcode, start + 2, DIGIT)
+            && is(postcode, start + 3, DISTRICT_AFTER_AREA);
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isGiro(CharSequence postcode, int start, int outwardEnd, int inward) {
+    return outwardEnd - start == 3
+        && matches(postcode, start, "GIR")
+        && matches(postcode, inward, "0AA");
+  }
+
+  private static boolean matches(CharSequence postcode, int from, String expected) {
+    for (int i = 0; i < expected.length(); i++) {
+      if ((postcode.charAt(from + i) & ~0x20) != expected.charAt(i)
+          && postcode.charAt(from + i) != expected.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean is(CharSequence postcode, int index, int characterClass) {
+    char c = postcode.charAt(index);
+    return c < CHARACTER_CLASSES.length && (CHARACTER_CLASSES[c] & characterClass) != 0;
+  }
+
+  private static void mark(String characters, int characterClass) {
+    for (int i = 0; i < characters.length(); i++) {
+      char c = characters.charAt(i);
+      CHARACTER_CLASSES[c] |= characterClass;
+      CHARACTER_CLASSES[Character.toLowerCase(c)] |= characterClass;
+    }
+  }
+}
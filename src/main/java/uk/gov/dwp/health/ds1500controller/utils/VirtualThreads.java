@@ -0,0 +1,48 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual-thread executors when the service is running on Java 21 or later. The artifact
+ * is still built for Java 17, so the Java 21 API is looked up at runtime rather than linked.
+ */
+public final class VirtualThreads {
+  private static final int FIRST_SUPPORTED_RELEASE = 21;
+
+  private VirtualThreads() {}
+
+  public static boolean isSupported() {
+    return Runtime.version().feature() >= FIRST_SUPPORTED_RELEASE;
+  }
+
+  /** One new virtual thread per task, each named with the prefix and a counter. */
+  public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+    if (!isSupported()) {
+      throw new IllegalStateException(
+          String.format(
+              "Virtual threads need Java %d or later, running on %s",
+              FIRST_SUPPORTED_RELEASE, Runtime.version()));
+    }
+
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder =
+          builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return (ExecutorService)
+          Executors.class
+              .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+              .invoke(null, factory);
+
+    } catch (ClassNotFoundException
+        | NoSuchMethodException
+        | IllegalAccessException
+        | InvocationTargetException e) {
+      throw new IllegalStateException("Unable to create a virtual thread executor", e);
+    }
+  }
+}
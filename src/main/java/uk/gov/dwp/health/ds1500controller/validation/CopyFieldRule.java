@@ -0,0 +1,30 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+import java.util.function.BiConsumer;
+
+public class CopyFieldRule implements FormRule {
+  private final Ds1500Field field;
+  private final BiConsumer<DSForm, String> setter;
+
+  public CopyFieldRule(Ds1500Field field, BiConsumer<DSForm, String> setter) {
+    this.field = field;
+    this.setter = setter;
+  }
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    if (field.getPresence() == Ds1500Field.Presence.OPTIONAL) {
+      setter.accept(form, fields.optional(field));
+    } else {
+      setter.accept(form, fields.mandatory(field));
+    }
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.CHEAP;
+  }
+}
@@ -0,0 +1,66 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.PackedDate;
+
+import java.time.Clock;
+
+public class DateRule implements FormRule {
+  private static final int EARLIEST_YEAR = 1890;
+
+  /** Receives the date as entered on the form and packed as yyyymmdd. */
+  @FunctionalInterface
+  public interface DateSetter {
+    void set(DSForm form, String formDate, int packedDate);
+  }
+
+  private final Ds1500Date date;
+  private final DateSetter setter;
+  private final Clock clock;
+  private final Ds1500Date notBefore;
+  private final String notBeforeMessage;
+
+  public DateRule(Ds1500Date date, DateSetter setter, Clock clock) {
+    this(date, setter, clock, null, null);
+  }
+
+  /**
+   * A date that must also fall on or after {@code notBefore}, failing with {@code
+   * notBeforeMessage} when it doesn't.
+   */
+  public DateRule(
+      Ds1500Date date,
+      DateSetter setter,
+      Clock clock,
+      Ds1500Date notBefore,
+      String notBeforeMessage) {
+    this.date = date;
+    this.setter = setter;
+    this.clock = clock;
+    this.notBefore = notBefore;
+    this.notBeforeMessage = notBeforeMessage;
+  }
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    int value = fields.date(date);
+
+    if (PackedDate.year(value) < EARLIEST_YEAR) {
+      throw new InvalidJsonException("Date is invalid");
+    }
+    if (value > PackedDate.today(clock)) {
+      throw new InvalidJsonException("Date is in the future");
+    }
+    if (notBefore != null && value < fields.date(notBefore)) {
+      throw new InvalidJsonException(notBeforeMessage);
+    }
+
+    setter.set(form, fields.formDate(date), value);
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.PATTERN;
+  }
+}
@@ -0,0 +1,37 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+public class DeclarationRule implements FormRule {
+  private static final int MAX_GMC_NUMBER = 9999999;
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    String declaration = fields.mandatory(Ds1500Field.DECLARATION);
+    form.setDeclaration(declaration);
+
+    if ("General Practitioner".equals(declaration)
+        || "GMC registered consultant".equals(declaration)) {
+      form.setGmcNumber(Integer.parseInt(fields.mandatory(Ds1500Field.GMC_NUMBER)));
+      validateGmcNumber(form);
+      form.setOther("");
+    } else if (!"Specialist nurse".equals(declaration)) {
+      form.setOther(fields.mandatory(Ds1500Field.DECLARATION_ADDITIONAL_DETAIL));
+    }
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.CHEAP;
+  }
+
+  private void validateGmcNumber(DSForm form) throws InvalidJsonException {
+    if (form.getGmcNumber() > MAX_GMC_NUMBER || form.getGmcNumber() <= 0) {
+      throw new InvalidJsonException(
+          String.format(
+              "'gmcNumber' must be a positive 7 digit number less than 9999999; was %d",
+              form.getGmcNumber()));
+    }
+  }
+}
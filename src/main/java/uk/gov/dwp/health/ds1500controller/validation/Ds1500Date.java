@@ -0,0 +1,33 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+public enum Ds1500Date {
+  DATE_OF_BIRTH(
+      Ds1500Field.PATIENT_DOB_DAY, Ds1500Field.PATIENT_DOB_MONTH, Ds1500Field.PATIENT_DOB_YEAR),
+  DIAGNOSIS(Ds1500Field.DIAGNOSIS_DAY, Ds1500Field.DIAGNOSIS_MONTH, Ds1500Field.DIAGNOSIS_YEAR),
+  SPECIAL_RULES(
+      Ds1500Field.SPECIAL_RULES_DAY,
+      Ds1500Field.SPECIAL_RULES_MONTH,
+      Ds1500Field.SPECIAL_RULES_YEAR);
+
+  private final Ds1500Field day;
+  private final Ds1500Field month;
+  private final Ds1500Field year;
+
+  Ds1500Date(Ds1500Field day, Ds1500Field month, Ds1500Field year) {
+    this.day = day;
+    this.month = month;
+    this.year = year;
+  }
+
+  public Ds1500Field getDay() {
+    return day;
+  }
+
+  public Ds1500Field getMonth() {
+    return month;
+  }
+
+  public Ds1500Field getYear() {
+    return year;
+  }
+}
@@ -0,0 +1,76 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum Ds1500Field {
+  PATIENT_NAME("patientName", Presence.MANDATORY),
+  PATIENT_ADDRESS("patientAddress", Presence.MANDATORY),
+  PATIENT_POSTCODE("patientPostcode", Presence.MANDATORY),
+  PATIENT_DOB_DAY("patientDateOfBirth-day", Presence.MANDATORY),
+  PATIENT_DOB_MONTH("patientDateOfBirth-month", Presence.MANDATORY),
+  PATIENT_DOB_YEAR("patientDateOfBirth-year", Presence.MANDATORY),
+  DIAGNOSIS_DAY("dateOfDiagnosis-day", Presence.MANDATORY),
+  DIAGNOSIS_MONTH("dateOfDiagnosis-month", Presence.MANDATORY),
+  DIAGNOSIS_YEAR("dateOfDiagnosis-year", Presence.MANDATORY),
+  SPECIAL_RULES_DAY("dateOfSpecialRules-day", Presence.MANDATORY),
+  SPECIAL_RULES_MONTH("dateOfSpecialRules-month", Presence.MANDATORY),
+  SPECIAL_RULES_YEAR("dateOfSpecialRules-year", Presence.MANDATORY),
+  PATIENT_NINO("patientNino", Presence.OPTIONAL),
+  DIAGNOSIS("diagnosis", Presence.MANDATORY),
+  OTHER_DIAGNOSES("otherDiagnoses", Presence.OPTIONAL),
+  DIAGNOSIS_AWARE("diagnosisAware", Presence.MANDATORY),
+  PATIENT_AWARE("patientAware", Presence.MANDATORY),
+  CLINICAL_FEATURES("clinicalFeatures", Presence.MANDATORY),
+  TREATMENT("treatment", Presence.MANDATORY),
+  DECLARATION("declaration", Presence.MANDATORY),
+  GMC_NUMBER("gmcNumber", Presence.CONDITIONAL),
+  DECLARATION_ADDITIONAL_DETAIL("declarationAdditionalDetail", Presence.CONDITIONAL),
+  GP_NAME("gpName", Presence.MANDATORY),
+  GP_ADDRESS("gpAddress", Presence.MANDATORY),
+  GP_POSTCODE("gpPostcode", Presence.MANDATORY),
+  GP_PHONE("gpPhone", Presence.MANDATORY);
+
+  /**
+   * How a field takes part in validation. MANDATORY and OPTIONAL fields are read on every
+   * submission so they are cleaned as soon as they are streamed; CONDITIONAL fields only matter
+   * for some declarations and are left untouched until a rule asks for them.
+   */
+  public enum Presence {
+    MANDATORY,
+    OPTIONAL,
+    CONDITIONAL
+  }
+
+  private static final Map<String, Ds1500Field> BY_JSON_NAME = new HashMap<>();
+
+  static {
+    for (Ds1500Field field : values()) {
+      BY_JSON_NAME.put(field.jsonName, field);
+    }
+  }
+
+  private final String jsonName;
+  private final Presence presence;
+
+  Ds1500Field(String jsonName, Presence presence) {
+    this.jsonName = jsonName;
+    this.presence = presence;
+  }
+
+  public static Ds1500Field forJsonName(String jsonName) {
+    return BY_JSON_NAME.get(jsonName);
+  }
+
+  public String getJsonName() {
+    return jsonName;
+  }
+
+  public Presence getPresence() {
+    return presence;
+  }
+
+  public boolean isCleanedOnRead() {
+    return presence != Presence.CONDITIONAL;
+  }
+}
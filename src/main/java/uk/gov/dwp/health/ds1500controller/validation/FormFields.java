@@ -0,0 +1,122 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidCharactersException;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
+import uk.gov.dwp.health.ds1500controller.utils.PackedDate;
+
+/**
+ * The DS1500 fields of one submission. Each value is cleaned at most once and each form date is
+ * parsed at most once, however many rules read it.
+ */
+public class FormFields {
+  private static final int FIELD_COUNT = Ds1500Field.values().length;
+  private static final int DATE_COUNT = Ds1500Date.values().length;
+
+  private final InputHelper inputHelper;
+  private final String[] values = new String[FIELD_COUNT];
+  private final boolean[] cleaned = new boolean[FIELD_COUNT];
+  private final String[] formDates = new String[DATE_COUNT];
+  private final int[] packedDates = new int[DATE_COUNT];
+
+  FormFields(InputHelper inputHelper) {
+    this.inputHelper = inputHelper;
+  }
+
+  void put(Ds1500Field field, String text) throws InvalidJsonException {
+    int slot = field.ordinal();
+    if (field.isCleanedOnRead()) {
+      values[slot] = clean(text);
+      cleaned[slot] = true;
+    } else {
+      values[slot] = text;
+      cleaned[slot] = false;
+    }
+  }
+
+  /**
+   * Rejects a mandatory field that was sent blank. Run once the whole payload has been read, so a
+   * repeated key is judged on its last value, as it was when the payload was parsed into a tree.
+   */
+  void checkMandatoryFields() throws InvalidJsonException {
+    for (Ds1500Field field : Ds1500Field.values()) {
+      int slot = field.ordinal();
+      if (field.isCleanedOnRead()
+          && field.getPresence() == Ds1500Field.Presence.MANDATORY
+          && cleaned[slot]
+          && isBlank(values[slot])) {
+        throw mandatoryFieldMissing(field);
+      }
+    }
+  }
+
+  /** Stores the value uncleaned, leaving every check to the rules that read it. */
+  void putUnchecked(Ds1500Field field, String text) {
+    values[field.ordinal()] = text;
+    cleaned[field.ordinal()] = false;
+  }
+
+  public String mandatory(Ds1500Field field) throws InvalidJsonException {
+    String fieldValue = optional(field);
+    if (isBlank(fieldValue)) {
+      throw mandatoryFieldMissing(field);
+    }
+    return fieldValue;
+  }
+
+  public String optional(Ds1500Field field) throws InvalidJsonException {
+    int slot = field.ordinal();
+    if (!cleaned[slot]) {
+      values[slot] = clean(values[slot]);
+      cleaned[slot] = true;
+    }
+    return values[slot];
+  }
+
+  /** The date as it was entered on the form, day/month/year. */
+  public String formDate(Ds1500Date date) throws InvalidJsonException {
+    int slot = date.ordinal();
+    if (formDates[slot] == null) {
+      formDates[slot] =
+          mandatory(date.getDay())
+              + "/"
+              + mandatory(date.getMonth())
+              + "/"
+              + mandatory(date.getYear());
+    }
+    return formDates[slot];
+  }
+
+  /** The date packed as yyyymmdd, see {@link PackedDate}. */
+  public int date(Ds1500Date date) throws InvalidJsonException {
+    int slot = date.ordinal();
+    if (packedDates[slot] == PackedDate.INVALID) {
+      packedDates[slot] =
+          PackedDate.parse(
+              mandatory(date.getDay()), mandatory(date.getMonth()), mandatory(date.getYear()));
+      if (packedDates[slot] == PackedDate.INVALID) {
+        throw new InvalidJsonException("Date is invalid");
+      }
+    }
+    return packedDates[slot];
+  }
+
+  private String clean(String text) throws InvalidJsonException {
+    if (text == null) {
+      return null;
+    }
+    try {
+      return inputHelper.cleanInput(text);
+    } catch (InvalidCharactersException e) {
+      throw new InvalidJsonException(e);
+    }
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.trim().isEmpty();
+  }
+
+  private static InvalidJsonException mandatoryFieldMissing(Ds1500Field field) {
+    return new InvalidJsonException(field.getJsonName() + " is a mandatory field");
+  }
+}
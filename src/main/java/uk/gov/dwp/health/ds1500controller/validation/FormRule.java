@@ -0,0 +1,15 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+/**
+ * One step of DS1500 validation. Rules hold no per-request state so a single instance is shared
+ * by every request thread, and they only read from {@link FormFields}, so a plan is free to run
+ * them in order of cost.
+ */
+public interface FormRule {
+  void apply(FormFields fields, DSForm form) throws InvalidJsonException;
+
+  RuleCost cost();
+}
@@ -0,0 +1,123 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+/**
+ * Upper bounds on what a submission may contain. The body size is checked before the payload is
+ * handed to the resource, the rest while the payload is streamed, so an oversize or deeply nested
+ * document is rejected without being parsed in full.
+ */
+public class InputLimits {
+  public static final int DEFAULT_MAX_BODY_BYTES = 256 * 1024;
+  public static final int DEFAULT_MAX_FIELD_LENGTH = 32 * 1024;
+  public static final int DEFAULT_MAX_NESTING_DEPTH = 16;
+  public static final int DEFAULT_MAX_FIELD_COUNT = 200;
+  public static final int DEFAULT_MAX_BATCH_BODY_BYTES = 8 * 1024 * 1024;
+  public static final int DEFAULT_MAX_BATCH_ITEMS = 500;
+
+  private final int maxBodyBytes;
+  private final int maxFieldLength;
+  private final int maxNestingDepth;
+  private final int maxFieldCount;
+  private final int maxBatchBodyBytes;
+  private final int maxBatchItems;
+  private final Meter oversizeBodies = new Meter();
+  private final Meter rejectedStructures = new Meter();
+
+  public InputLimits(int maxBodyBytes, int maxFieldLength, int maxNestingDepth, int maxFieldCount) {
+    this(
+        maxBodyBytes,
+        maxFieldLength,
+        maxNestingDepth,
+        maxFieldCount,
+        DEFAULT_MAX_BATCH_BODY_BYTES,
+        DEFAULT_MAX_BATCH_ITEMS);
+  }
+
+  /** The batch limits apply to a whole {@code /controller/batch} body, the rest to each form. */
+  public InputLimits(
+      int maxBodyBytes,
+      int maxFieldLength,
+      int maxNestingDepth,
+      int maxFieldCount,
+      int maxBatchBodyBytes,
+      int maxBatchItems) {
+    this.maxBodyBytes = maxBodyBytes;
+    this.maxFieldLength = maxFieldLength;
+    this.maxNestingDepth = maxNestingDepth;
+    this.maxFieldCount = maxFieldCount;
+    this.maxBatchBodyBytes = maxBatchBodyBytes;
+    this.maxBatchItems = maxBatchItems;
+  }
+
+  public static InputLimits defaults() {
+    return new InputLimits(
+        DEFAULT_MAX_BODY_BYTES,
+        DEFAULT_MAX_FIELD_LENGTH,
+        DEFAULT_MAX_NESTING_DEPTH,
+        DEFAULT_MAX_FIELD_COUNT);
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(InputLimits.class, "oversizeBodies"), oversizeBodies);
+    metrics.register(
+        MetricRegistry.name(InputLimits.class, "rejectedStructures"), rejectedStructures);
+  }
+
+  StreamReadConstraints streamReadConstraints() {
+    return StreamReadConstraints.builder()
+        .maxStringLength(maxFieldLength)
+        .maxNestingDepth(maxNestingDepth)
+        .build();
+  }
+
+  /** The per-form limits, with one more level of nesting for the array around the forms. */
+  public StreamReadConstraints batchStreamReadConstraints() {
+    return StreamReadConstraints.builder()
+        .maxStringLength(maxFieldLength)
+        .maxNestingDepth(maxNestingDepth + 1)
+        .build();
+  }
+
+  public void recordOversizeBody() {
+    oversizeBodies.mark();
+  }
+
+  public void recordRejectedStructure() {
+    rejectedStructures.mark();
+  }
+
+  public int getMaxBodyBytes() {
+    return maxBodyBytes;
+  }
+
+  public int getMaxFieldLength() {
+    return maxFieldLength;
+  }
+
+  public int getMaxNestingDepth() {
+    return maxNestingDepth;
+  }
+
+  public int getMaxFieldCount() {
+    return maxFieldCount;
+  }
+
+  public int getMaxBatchBodyBytes() {
+    return maxBatchBodyBytes;
+  }
+
+  public int getMaxBatchItems() {
+    return maxBatchItems;
+  }
+
+  public long getOversizeBodyCount() {
+    return oversizeBodies.getCount();
+  }
+
+  public long getRejectedStructureCount() {
+    return rejectedStructures.getCount();
+  }
+}
@@ -0,0 +1,29 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.PackedNino;
+
+import java.util.Locale;
+
+public class NinoRule implements FormRule {
+  public static final String NINO_ERROR_MESSAGE = "Nino Validation Failed";
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    form.setnINumber(fields.optional(Ds1500Field.PATIENT_NINO));
+    if (form.getnINumber() != null && !form.getnINumber().isEmpty()) {
+      form.setnINumber(form.getnINumber().toUpperCase(Locale.ROOT));
+      long nino = PackedNino.parse(form.getnINumber());
+      if (nino == PackedNino.INVALID) {
+        throw new InvalidJsonException(NINO_ERROR_MESSAGE);
+      }
+      form.setPackedNino(nino);
+    }
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.CHEAP;
+  }
+}
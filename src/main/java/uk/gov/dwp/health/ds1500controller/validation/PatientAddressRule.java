@@ -0,0 +1,17 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+public class PatientAddressRule implements FormRule {
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    form.setAddress(fields.mandatory(Ds1500Field.PATIENT_ADDRESS).split("\n"));
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.CHEAP;
+  }
+}
@@ -0,0 +1,62 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class PatientNameRule implements FormRule {
+  private static final int MAX_SURNAME_LENGTH = 35;
+
+  private final Pattern validNamePattern;
+
+  public PatientNameRule(Pattern validNamePattern) {
+    this.validNamePattern = validNamePattern;
+  }
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    String fullName = fields.mandatory(Ds1500Field.PATIENT_NAME).toUpperCase(Locale.ROOT);
+    String otherNames = getOtherNames(form, fullName.split(" "));
+    form.setOtherNames(otherNames.trim());
+
+    checkSurnameIsValid(form);
+    checkOtherNamesAreValid(form);
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.PATTERN;
+  }
+
+  private void checkOtherNamesAreValid(DSForm form) throws InvalidJsonException {
+    if (!form.getOtherNames().isEmpty()
+        && !validNamePattern.matcher(form.getOtherNames()).matches()) {
+      throw new InvalidJsonException(
+          String.format("'patientName' contains invalid characters: '%s'", form.getOtherNames()));
+    }
+  }
+
+  private void checkSurnameIsValid(DSForm form) throws InvalidJsonException {
+    if (form.getSurname().length() > MAX_SURNAME_LENGTH) {
+      throw new InvalidJsonException("'surname' is longer than the maximum allowable length");
+    }
+
+    if (!validNamePattern.matcher(form.getSurname()).matches()) {
+      throw new InvalidJsonException(
+          String.format("'patientName' contains invalid characters: '%s'", form.getSurname()));
+    }
+  }
+
+  private String getOtherNames(DSForm form, String[] allNames) {
+    StringBuilder otherNames = new StringBuilder();
+    if (allNames.length >= 1) {
+      form.setSurname(allNames[allNames.length - 1]);
+      for (int i = 0; i < allNames.length - 1; i++) {
+        otherNames.append(allNames[i]).append(" ");
+      }
+    }
+    return otherNames.toString();
+  }
+}
@@ -0,0 +1,22 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.UkPostcode;
+
+public class PatientPostcodeRule implements FormRule {
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    form.setPostcode(fields.mandatory(Ds1500Field.PATIENT_POSTCODE));
+    if (!UkPostcode.isValid(form.getPostcode())) {
+      throw new InvalidJsonException(
+          String.format("'patientPostcode' fails validation : '%s'", form.getPostcode()));
+    }
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.CHEAP;
+  }
+}
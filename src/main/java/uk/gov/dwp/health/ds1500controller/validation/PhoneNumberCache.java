@@ -0,0 +1,90 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Remembers whether a GP phone number is valid. The same surgery numbers are submitted all day, so
+ * the libphonenumber parse is only paid the first time a number is seen within the TTL.
+ */
+public class PhoneNumberCache {
+  public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+  public static final Duration DEFAULT_TTL = Duration.ofHours(12);
+
+  private final PhoneNumberUtil phoneUtil;
+  private final Cache<String, Boolean> validity;
+
+  public PhoneNumberCache(PhoneNumberUtil phoneUtil, long maximumSize, Duration ttl) {
+    this(phoneUtil, maximumSize, ttl, Ticker.systemTicker());
+  }
+
+  PhoneNumberCache(PhoneNumberUtil phoneUtil, long maximumSize, Duration ttl, Ticker ticker) {
+    this.phoneUtil = phoneUtil;
+    this.validity =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+  }
+
+  public boolean isValid(String phoneNumber) {
+    String key = normalise(phoneNumber);
+    try {
+      return validity.get(key, () -> parseAndValidate(key));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(
+        MetricRegistry.name(PhoneNumberCache.class, "hits"),
+        (Gauge<Long>) () -> validity.stats().hitCount());
+    metrics.register(
+        MetricRegistry.name(PhoneNumberCache.class, "misses"),
+        (Gauge<Long>) () -> validity.stats().missCount());
+    metrics.register(
+        MetricRegistry.name(PhoneNumberCache.class, "hitRate"),
+        (Gauge<Double>) () -> validity.stats().hitRate());
+    metrics.register(
+        MetricRegistry.name(PhoneNumberCache.class, "size"),
+        (Gauge<Long>) validity::size);
+  }
+
+  private Boolean parseAndValidate(String phoneNumber) {
+    try {
+      return phoneUtil.isValidNumber(phoneUtil.parse(phoneNumber, "GB"));
+    } catch (NumberParseException e) {
+      return Boolean.FALSE;
+    }
+  }
+
+  /**
+   * Surrounding whitespace never changes how libphonenumber reads a number, and neither do the
+   * spaces inside a plain run of digits with an optional leading '+'. Anything else, such as
+   * extensions or punctuation, is kept as entered.
+   */
+  static String normalise(String phoneNumber) {
+    String trimmed = phoneNumber.trim();
+    boolean hasInnerSpace = false;
+    for (int i = 0; i < trimmed.length(); i++) {
+      char c = trimmed.charAt(i);
+      if (c == ' ') {
+        hasInnerSpace = true;
+      } else if ((c < '0' || c > '9') && !(c == '+' && i == 0)) {
+        return trimmed;
+      }
+    }
+    return hasInnerSpace ? trimmed.replace(" ", "") : trimmed;
+  }
+}
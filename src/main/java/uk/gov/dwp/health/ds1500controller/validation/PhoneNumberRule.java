@@ -0,0 +1,26 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+public class PhoneNumberRule implements FormRule {
+  private final PhoneNumberCache phoneNumbers;
+
+  public PhoneNumberRule(PhoneNumberCache phoneNumbers) {
+    this.phoneNumbers = phoneNumbers;
+  }
+
+  @Override
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    form.setDeclarerPhoneNumber(fields.mandatory(Ds1500Field.GP_PHONE));
+
+    if (!phoneNumbers.isValid(form.getDeclarerPhoneNumber())) {
+      throw new InvalidJsonException("Invalid format for GP Phone number");
+    }
+  }
+
+  @Override
+  public RuleCost cost() {
+    return RuleCost.EXPENSIVE;
+  }
+}
@@ -0,0 +1,14 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+/**
+ * How expensive a rule is to run. A plan runs its rules cheapest first, keeping form order within
+ * each cost.
+ */
+public enum RuleCost {
+  /** Presence, length and table-driven format checks on already cleaned fields. */
+  CHEAP,
+  /** Regular expressions and date parsing. */
+  PATTERN,
+  /** Calls into heavyweight libraries such as libphonenumber. */
+  EXPENSIVE
+}
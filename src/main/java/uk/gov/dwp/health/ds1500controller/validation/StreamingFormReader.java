@@ -0,0 +1,99 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
+
+import java.io.IOException;
+
+public class StreamingFormReader {
+  private final InputHelper inputHelper;
+  private final InputLimits inputLimits;
+  private final JsonFactory jsonFactory;
+
+  public StreamingFormReader(InputHelper inputHelper) {
+    this(inputHelper, InputLimits.defaults());
+  }
+
+  public StreamingFormReader(InputHelper inputHelper, InputLimits inputLimits) {
+    this.inputHelper = inputHelper;
+    this.inputLimits = inputLimits;
+    this.jsonFactory =
+        JsonFactory.builder()
+            .streamReadConstraints(inputLimits.streamReadConstraints())
+            .build();
+  }
+
+  /**
+   * Walks the payload once, token by token, keeping only the DS1500 fields. Fields that every
+   * submission needs are cleaned as they are read, so a bad value rejects the payload without
+   * parsing the rest of the document. Whether they are blank is checked once the object ends, so
+   * a repeated key is judged on its last value. The parser enforces the {@link InputLimits} as it
+   * goes.
+   */
+  public FormFields read(String jsonPayload) throws InvalidJsonException {
+    return read(jsonPayload, false);
+  }
+
+  /**
+   * Reads the payload as {@link #read} does but without cleaning or checking any field value, so
+   * the rules that read the fields can report every problem instead of the first.
+   */
+  public FormFields readUnchecked(String jsonPayload) throws InvalidJsonException {
+    return read(jsonPayload, true);
+  }
+
+  private FormFields read(String jsonPayload, boolean unchecked) throws InvalidJsonException {
+    if (jsonPayload == null) {
+      throw new InvalidJsonException("JSON payload is missing");
+    }
+
+    FormFields fields = new FormFields(inputHelper);
+    try (JsonParser parser = jsonFactory.createParser(jsonPayload)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new InvalidJsonException(
+            Ds1500Field.PATIENT_NAME.getJsonName() + " is a mandatory field");
+      }
+
+      JsonToken token;
+      int fieldCount = 0;
+      while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+        if (++fieldCount > inputLimits.getMaxFieldCount()) {
+          inputLimits.recordRejectedStructure();
+          throw new InvalidJsonException(
+              String.format(
+                  "JSON payload has more than %d fields", inputLimits.getMaxFieldCount()));
+        }
+        Ds1500Field field = Ds1500Field.forJsonName(parser.currentName());
+        JsonToken valueToken = parser.nextToken();
+        String text = valueToken == JsonToken.VALUE_STRING ? parser.getText() : null;
+        parser.skipChildren();
+
+        if (field != null && unchecked) {
+          fields.putUnchecked(field, text);
+        } else if (field != null) {
+          fields.put(field, text);
+        }
+      }
+
+      if (token != JsonToken.END_OBJECT) {
+        throw new InvalidJsonException("JSON payload ended before the form was complete");
+      }
+      if (!unchecked) {
+        fields.checkMandatoryFields();
+      }
+
+    } catch (StreamConstraintsException e) {
+      inputLimits.recordRejectedStructure();
+      throw new InvalidJsonException(e);
+
+    } catch (IOException e) {
+      throw new InvalidJsonException(e);
+    }
+
+    return fields;
+  }
+}
@@ -0,0 +1,150 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The DS1500 rules in form order, run cheapest first so that a missing or malformed field fails
+ * before the regex, date and phone number work that follows it on the form. A plan is built once
+ * at startup and holds only immutable state (compiled patterns, java.time formatters and
+ * stateless rules), so the same instance is shared by every request thread.
+ */
+public final class ValidationPlan {
+  private static final Pattern VALID_NAME_PATTERN =
+      Pattern.compile("(^[A-Za-z][A-Za-z\\s\\-.']*?[A-Za-z]$)");
+  private static final DateTimeFormatter DECLARATION_DATE =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+  private final Clock clock;
+  private final List<FormRule> rules;
+  private final int[] runOrder;
+
+  public ValidationPlan(Clock clock) {
+    this(
+        clock,
+        new PhoneNumberCache(
+            PhoneNumberUtil.getInstance(),
+            PhoneNumberCache.DEFAULT_MAXIMUM_SIZE,
+            PhoneNumberCache.DEFAULT_TTL));
+  }
+
+  public ValidationPlan(Clock clock, PhoneNumberCache phoneNumbers) {
+    this.clock = clock;
+
+    this.rules =
+        List.of(
+            new PatientNameRule(VALID_NAME_PATTERN),
+            new PatientAddressRule(),
+            new PatientPostcodeRule(),
+            new DateRule(
+                Ds1500Date.DATE_OF_BIRTH,
+                (form, formDate, packedDate) -> {
+                  form.setDateOfBirth(formDate);
+                  form.setPackedDateOfBirth(packedDate);
+                },
+                clock),
+            new DateRule(
+                Ds1500Date.DIAGNOSIS,
+                (form, formDate, packedDate) -> form.setDiagnosisDate(formDate),
+                clock,
+                Ds1500Date.DATE_OF_BIRTH,
+                "Date of diagnosis cannot be earlier than Patient DOB"),
+            new DateRule(
+                Ds1500Date.SPECIAL_RULES,
+                (form, formDate, packedDate) -> form.setSpecialDate(formDate),
+                clock,
+                Ds1500Date.DIAGNOSIS,
+                "Date of special rules cannot be earlier than Date of diagnosis"),
+            new NinoRule(),
+            new CopyFieldRule(Ds1500Field.DIAGNOSIS, DSForm::setDiagnosis),
+            new CopyFieldRule(Ds1500Field.OTHER_DIAGNOSES, DSForm::setOtherDiagnosis),
+            new CopyFieldRule(Ds1500Field.DIAGNOSIS_AWARE, DSForm::setDiagnosisAware),
+            new CopyFieldRule(Ds1500Field.PATIENT_AWARE, DSForm::setPatientAware),
+            new CopyFieldRule(Ds1500Field.CLINICAL_FEATURES, DSForm::setClinicalFeatures),
+            new CopyFieldRule(Ds1500Field.TREATMENT, DSForm::setTreatment),
+            new DeclarationRule(),
+            new CopyFieldRule(Ds1500Field.GP_NAME, DSForm::setDeclarerName),
+            new CopyFieldRule(Ds1500Field.GP_ADDRESS, DSForm::setDeclarerAddress),
+            new CopyFieldRule(Ds1500Field.GP_POSTCODE, DSForm::setDeclarerPostcode),
+            new PhoneNumberRule(phoneNumbers));
+
+    this.runOrder =
+        IntStream.range(0, rules.size())
+            .boxed()
+            .sorted(Comparator.comparing(index -> rules.get(index).cost()))
+            .mapToInt(Integer::intValue)
+            .toArray();
+  }
+
+  /**
+   * Runs the rules cheapest first. When a rule fails, only the rules that come before it on the
+   * form and have not run yet are tried, in form order, so the error reported is always the one a
+   * form-order walk would have reported, while later (typically expensive) rules are skipped.
+   */
+  public void apply(FormFields fields, DSForm form) throws InvalidJsonException {
+    boolean[] passed = new boolean[runOrder.length];
+    for (int index : runOrder) {
+      try {
+        rules.get(index).apply(fields, form);
+        passed[index] = true;
+
+      } catch (InvalidJsonException e) {
+        for (int earlier = 0; earlier < index; earlier++) {
+          if (!passed[earlier]) {
+            rules.get(earlier).apply(fields, form);
+          }
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Runs every rule in form order against a scratch form and returns each failure, for callers
+   * that want the whole list rather than the first problem. A rule that reads a field an earlier
+   * rule rejected fails on it again.
+   */
+  public List<InvalidJsonException> failures(FormFields fields) {
+    DSForm form = new DSForm();
+    List<InvalidJsonException> failures = new ArrayList<>();
+    for (FormRule rule : rules) {
+      try {
+        rule.apply(fields, form);
+
+      } catch (InvalidJsonException e) {
+        failures.add(e);
+      }
+    }
+    return failures;
+  }
+
+  public static ValidationPlan defaultPlan() {
+    return new ValidationPlan(Clock.systemDefaultZone());
+  }
+
+  /** The rules in form order. */
+  public List<FormRule> getRules() {
+    return rules;
+  }
+
+  /** The rules in the order {@link #apply} runs them. */
+  public List<FormRule> getRunOrder() {
+    return Arrays.stream(runOrder).mapToObj(rules::get).collect(Collectors.toUnmodifiableList());
+  }
+
+  public String declarationDate() {
+    return LocalDate.now(clock).format(DECLARATION_DATE);
+  }
+}
@@ -0,0 +1,95 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.validation.InputLimits;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class BatchPayloadsTest {
+    private final InputLimits inputLimits = new InputLimits(1024, 64, 4, 16, 8192, 3);
+    private final BatchPayloads batchPayloads = new BatchPayloads(inputLimits);
+
+    @Test
+    public void jsonArrayIsSplitIntoItsElements() throws InvalidJsonException {
+        List<String> payloads = batchPayloads.split("[ {\"a\":\"1\"},\n{\"b\":[1,2]} ]");
+
+        assertThat(payloads, is(Arrays.asList("{\"a\":\"1\"}", "{\"b\":[1,2]}")));
+    }
+
+    @Test
+    public void arrayElementsKeepTheTextTheyWereSentAs() throws InvalidJsonException {
+        List<String> payloads = batchPayloads.split("[{\"a\":\"1\",\"a\":\"2\"} , { \"b\" : 1.50 },\"c\\u0041\"]");
+
+        assertThat(payloads, is(Arrays.asList("{\"a\":\"1\",\"a\":\"2\"}", "{ \"b\" : 1.50 }", "\"c\\u0041\"")));
+    }
+
+    @Test
+    public void arraysAreParsedUnderTheInputLimits() {
+        assertRejected("[{\"a\":\"" + "x".repeat(65) + "\"}]", "");
+        assertRejected("[{\"a\":[[[[{}]]]]}]", "");
+
+        assertThat(inputLimits.getRejectedStructureCount(), is(2L));
+    }
+
+    @Test
+    public void nestingUpToTheFormLimitIsAccepted() throws InvalidJsonException {
+        assertThat(batchPayloads.split("[{\"a\":[[[]]]}, 7]"), is(Arrays.asList("{\"a\":[[[]]]}", "7")));
+    }
+
+    @Test
+    public void ndjsonIsSplitIntoLinesSkippingBlankOnes() throws InvalidJsonException {
+        List<String> payloads = batchPayloads.split("{\"a\":\"1\"}\r\n\n{\"b\":\"2\"}\n");
+
+        assertThat(payloads, is(Arrays.asList("{\"a\":\"1\"}", "{\"b\":\"2\"}")));
+    }
+
+    @Test
+    public void ndjsonLinesAreLeftForTheValidatorToCheck() throws InvalidJsonException {
+        List<String> payloads = batchPayloads.split("{\"a\":\"1\"}\nnot json");
+
+        assertThat(payloads, is(Arrays.asList("{\"a\":\"1\"}", "not json")));
+    }
+
+    @Test
+    public void emptyBodiesAreRejected() {
+        assertRejected(null, "Batch is empty");
+        assertRejected("  \n", "Batch is empty");
+        assertRejected("[]", "Batch is empty");
+    }
+
+    @Test
+    public void moreItemsThanTheLimitAreRejected() {
+        assertRejected("[{},{},{},{}]", "Batch has more than 3 submissions");
+        assertRejected("{}\n{}\n{}\n{}", "Batch has more than 3 submissions");
+    }
+
+    @Test
+    public void itemsUpToTheLimitAreAccepted() throws InvalidJsonException {
+        assertThat(batchPayloads.split("[{},{},{}]").size(), is(3));
+    }
+
+    @Test
+    public void malformedArraysAreRejected() {
+        assertRejected("[{\"a\":\"1\"}", "");
+        assertRejected("[{\"a\":}]", "");
+        assertRejected("[{}] {}", "Batch has content after the array");
+    }
+
+    private void assertRejected(String body, String message) {
+        try {
+            batchPayloads.split(body);
+            fail("batch should have been rejected: " + body);
+
+        } catch (InvalidJsonException e) {
+            assertThat(String.valueOf(e.getMessage()), containsString(message));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class CircuitBreakerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(3);
+
+    private final ManualTicker ticker = new ManualTicker();
+    private final CircuitBreaker breakerUnderTest = new CircuitBreaker("test", 50, 80, Duration.ofSeconds(2), 10, 4, Duration.ofSeconds(30), 2, ticker);
+
+    @Test
+    public void staysClosedUntilTheMinimumNumberOfCalls() {
+        record(3, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(true));
+    }
+
+    @Test
+    public void opensWhenTheFailureRateReachesTheThreshold() {
+        record(2, false, FAST);
+        record(2, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(false));
+    }
+
+    @Test
+    public void staysClosedBelowTheFailureRateThreshold() {
+        record(3, false, FAST);
+        record(1, true, FAST);
+        record(2, false, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void opensWhenTheSlowCallRateReachesTheThreshold() {
+        record(1, false, FAST);
+        record(4, false, SLOW);
+
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    public void onlyTheLastWindowOfCallsCounts() {
+        CircuitBreaker windowed = new CircuitBreaker("test", 75, 100, Duration.ofSeconds(2), 4, 4, Duration.ofSeconds(30), 2, ticker);
+        boolean[] calls = {true, true, false, false, false, false, true, true};
+        for (boolean failed : calls) {
+            windowed.onResult(failed, FAST);
+        }
+        assertThat(windowed.getState(), is(CircuitBreaker.State.CLOSED));
+
+        windowed.onResult(true, FAST);
+
+        assertThat(windowed.getState(), is(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    public void retryAfterCountsDownWhileOpen() {
+        record(4, true, FAST);
+
+        assertThat(breakerUnderTest.getRetryAfterSeconds(), is(30L));
+        ticker.advance(TimeUnit.MILLISECONDS.toNanos(20_500));
+        assertThat(breakerUnderTest.getRetryAfterSeconds(), is(10L));
+    }
+
+    @Test
+    public void letsTrialCallsThroughOnceTheOpenDurationHasPassed() {
+        record(4, true, FAST);
+        ticker.advance(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(true));
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.HALF_OPEN));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(true));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(false));
+    }
+
+    @Test
+    public void closesWhenTheTrialCallsSucceed() {
+        record(4, true, FAST);
+        ticker.advance(TimeUnit.SECONDS.toNanos(30));
+        breakerUnderTest.tryAcquirePermission();
+        breakerUnderTest.tryAcquirePermission();
+
+        record(2, false, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(true));
+    }
+
+    @Test
+    public void reopensWhenTheTrialCallsFail() {
+        record(4, true, FAST);
+        ticker.advance(TimeUnit.SECONDS.toNanos(30));
+        breakerUnderTest.tryAcquirePermission();
+        breakerUnderTest.tryAcquirePermission();
+
+        record(1, false, FAST);
+        record(1, true, FAST);
+
+        assertThat(breakerUnderTest.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(breakerUnderTest.getRetryAfterSeconds(), is(30L));
+    }
+
+    @Test
+    public void releasedTrialPermitsCanBeTakenAgain() {
+        record(4, true, FAST);
+        ticker.advance(TimeUnit.SECONDS.toNanos(30));
+        breakerUnderTest.tryAcquirePermission();
+        breakerUnderTest.tryAcquirePermission();
+
+        breakerUnderTest.releasePermission();
+
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(true));
+        assertThat(breakerUnderTest.tryAcquirePermission(), is(false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void stateChangesAreReportedAsMetrics() {
+        MetricRegistry metrics = new MetricRegistry();
+        breakerUnderTest.registerMetrics(metrics);
+
+        record(4, true, FAST);
+        breakerUnderTest.tryAcquirePermission();
+
+        Gauge<Integer> state = metrics.getGauges().get(MetricRegistry.name(CircuitBreaker.class, "test", "state"));
+        assertThat(state.getValue(), is(CircuitBreaker.State.OPEN.ordinal()));
+        assertThat(metrics.meter(MetricRegistry.name(CircuitBreaker.class, "test", "opened")).getCount(), is(1L));
+        assertThat(metrics.meter(MetricRegistry.name(CircuitBreaker.class, "test", "rejected")).getCount(), is(1L));
+    }
+
+    private void record(int calls, boolean failed, long durationNanos) {
+        for (int i = 0; i < calls; i++) {
+            breakerUnderTest.onResult(failed, durationNanos);
+        }
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs every payload through both the streaming validator and the original tree based one and
+ * fails the calling test if they disagree on whether the payload is valid or on the form it
+ * produces. The streaming result (or exception) is what the caller sees.
+ */
+public class DifferentialJsonValidator extends Ds1500JsonValidator {
+    private final LegacyTreeJsonValidator reference = new LegacyTreeJsonValidator();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public DSForm validateAndTranslate(String jsonPayload) throws InvalidJsonException {
+        DSForm expected = null;
+        Exception expectedFailure = null;
+        try {
+            expected = reference.validateAndTranslate(jsonPayload);
+        } catch (Exception e) {
+            expectedFailure = e;
+        }
+
+        DSForm actual;
+        try {
+            actual = super.validateAndTranslate(jsonPayload);
+        } catch (InvalidJsonException e) {
+            if (expectedFailure == null) {
+                fail(String.format("streaming validator rejected a payload the tree validator accepted (%s) :: %s", e.getMessage(), jsonPayload));
+            }
+            throw e;
+        }
+
+        if (expectedFailure != null) {
+            fail(String.format("streaming validator accepted a payload the tree validator rejected (%s) :: %s", expectedFailure, jsonPayload));
+        }
+        assertThat("translated forms differ for " + jsonPayload, asJson(actual), is(asJson(expected)));
+        return actual;
+    }
+
+    private String asJson(DSForm form) {
+        try {
+            return mapper.writeValueAsString(form);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
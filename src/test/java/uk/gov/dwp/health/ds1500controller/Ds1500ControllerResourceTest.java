@@ -3,6 +3,10 @@ package uk.gov.dwp.health.ds1500controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.TimeoutHandler;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,33 +14,58 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.dwp.health.crypto.exception.CryptoException;
 import uk.gov.dwp.health.crypto.exceptions.EventsMessageException;
 import uk.gov.dwp.health.ds1500controller.application.Ds1500ControllerConfiguration;
 import uk.gov.dwp.health.ds1500controller.domain.DSForm;
 import uk.gov.dwp.health.ds1500controller.domain.Ds1500Metadata;
+import uk.gov.dwp.health.ds1500controller.domain.SubmissionStatus;
 import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
 import uk.gov.dwp.health.ds1500controller.domain.exceptions.PdfRetrievalError;
+import uk.gov.dwp.health.ds1500controller.outbox.Outbox;
+import uk.gov.dwp.health.ds1500controller.outbox.OutboxEntry;
+import uk.gov.dwp.health.ds1500controller.outbox.PublishHeldBackException;
 import uk.gov.dwp.health.ds1500controller.utils.PdfRetriever;
+import uk.gov.dwp.health.ds1500controller.utils.TimeOrderedIdGenerator;
+import uk.gov.dwp.health.ds1500controller.validation.InputLimits;
 import uk.gov.dwp.health.messageq.amazon.sns.MessagePublisher;
 import uk.gov.dwp.health.messageq.items.event.EventMessage;
 import uk.gov.dwp.regex.InvalidNinoException;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -70,6 +99,33 @@ public class Ds1500ControllerResourceTest {
     @Mock
     private MetadataBuilder metadataBuilder;
 
+    @Spy
+    private JsonCodec jsonCodec = new JsonCodec();
+
+    @Spy
+    private BatchPayloads batchPayloads = new BatchPayloads(InputLimits.defaults());
+
+    @Spy
+    private DirectExecutor publishExecutor = new DirectExecutor();
+
+    @Spy
+    private SubmissionStatusStore statusStore = new SubmissionStatusStore(100, Duration.ofMinutes(10));
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, Duration.ofMinutes(10), 4);
+
+    @Spy
+    private TimeOrderedIdGenerator idGenerator = new TimeOrderedIdGenerator();
+
+    @Spy
+    private PublishGuard publishGuard = new PublishGuard(new CircuitBreaker("test", 100, 100, Duration.ofMinutes(1), 100, 100, Duration.ofMinutes(1), 1), 100);
+
+    @Spy
+    private PublishRetry publishRetry = new PublishRetry(1, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofSeconds(5));
+
+    @Mock
+    private AsyncResponse asyncResponse;
+
     @InjectMocks
     private Ds1500ControllerResource resourceUnderTest;
 
@@ -85,6 +141,7 @@ public class Ds1500ControllerResourceTest {
 
         when(configuration.getPdfFeeGeneratorUrl()).thenReturn(DS1500_PDF_FEE_URL);
         when(configuration.getPdfGeneratorUrl()).thenReturn(DS1500_PDF_URL);
+        when(configuration.getSubmissionTimeout()).thenReturn(io.dropwizard.util.Duration.seconds(30));
     }
 
     @Test
@@ -97,7 +154,7 @@ public class Ds1500ControllerResourceTest {
         when(validator.validateAndTranslate(jsonPayload)).thenReturn(returnedForm);
         when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(metadata);
 
-        Response post = resourceUnderTest.post(jsonPayload);
+        Response post = post(jsonPayload);
         assertThat(post.getStatus(), is(200));
 
         verify(validator).validateAndTranslate(jsonPayload);
@@ -114,7 +171,7 @@ public class Ds1500ControllerResourceTest {
         when(validator.validateAndTranslate(jsonPayload)).thenReturn(returnedForm);
         when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(metadata);
 
-        Response post = resourceUnderTest.post(jsonPayload);
+        Response post = post(jsonPayload);
         assertThat(post.getStatus(), is(200));
 
         JsonNode jsonNode = new ObjectMapper().readTree(post.getEntity().toString());
@@ -275,7 +332,7 @@ public class Ds1500ControllerResourceTest {
         when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(metadata);
         when(validator.validateAndTranslate(jsonPayload)).thenReturn(returnedForm);
 
-        Response post = resourceUnderTest.post(jsonPayload);
+        Response post = post(jsonPayload);
         assertThat(post.getStatus(), is(500));
         verify(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
     }
@@ -284,8 +341,456 @@ public class Ds1500ControllerResourceTest {
     public void confirmJsonWhichIsNotValidatedWillNotSendToDrs() throws InvalidJsonException {
         String jsonPayload = "{badJSON}";
         when(validator.validateAndTranslate(jsonPayload)).thenThrow(new InvalidJsonException("thrown in test"));
-        Response post = resourceUnderTest.post(jsonPayload);
+        Response post = post(jsonPayload);
         assertThat(post.getStatus(), is(400));
         verifyNoInteractions(snsPublish);
+        verifyNoInteractions(publishExecutor);
+    }
+
+    @Test
+    public void confirmPublishIsHandedToThePublishExecutor() throws InvalidJsonException, InvalidNinoException {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+
+        assertThat(post(jsonPayload).getStatus(), is(200));
+        verify(publishExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void confirmCorrelationIdComesFromTheIdGenerator() throws Exception {
+        String jsonPayload = "{}";
+        UUID correlationId = UUID.fromString("0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b");
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        when(idGenerator.correlationId()).thenReturn(correlationId);
+
+        Response post = post(jsonPayload);
+
+        ArgumentCaptor<EventMessage> event = ArgumentCaptor.forClass(EventMessage.class);
+        verify(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), event.capture(), eq(null));
+        assertThat(event.getValue().getMetaData().getCorrelationId(), is(correlationId.toString()));
+        assertThat(post.getEntity().toString().contains(correlationId.toString()), is(true));
+    }
+
+    @Test
+    public void confirmFullPublishQueueReturnsServiceUnavailable() throws InvalidJsonException, InvalidNinoException {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        Ds1500ControllerResource saturatedResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, command -> {
+            throw new RejectedExecutionException("queue full");
+        }, null, statusStore, idempotencyStore, idGenerator, publishGuard, publishRetry);
+
+        saturatedResource.post(jsonPayload, null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+        verifyNoInteractions(snsPublish);
+        verify(statusStore, never()).record(any(UUID.class), eq(SubmissionStatus.FAILED));
+    }
+
+    @Test
+    public void confirmTransientPublishFailureIsRetried() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        doThrow(new EventsMessageException("thrown in test")).doNothing().when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+        PublishRetry retrying = new PublishRetry(3, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofSeconds(5), Ticker.systemTicker(), nanos -> {});
+        Ds1500ControllerResource retryingResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, null, statusStore, idempotencyStore, idGenerator, publishGuard, retrying);
+
+        retryingResource.post(jsonPayload, null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(200));
+        verify(snsPublish, times(2)).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+    }
+
+    @Test
+    public void confirmOpenCircuitReturnsServiceUnavailableWithRetryAfter() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        doThrow(new EventsMessageException("thrown in test")).when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+        PublishGuard trippingGuard = new PublishGuard(new CircuitBreaker("test", 100, 100, Duration.ofMinutes(1), 1, 1, Duration.ofSeconds(30), 1), 100);
+        Ds1500ControllerResource guardedResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, null, statusStore, idempotencyStore, idGenerator, trippingGuard, publishRetry);
+
+        guardedResource.post(jsonPayload, null, asyncResponse);
+        guardedResource.post(jsonPayload, null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse, times(2)).resume(response.capture());
+        assertThat(response.getAllValues().get(0).getStatus(), is(500));
+        assertThat(response.getAllValues().get(1).getStatus(), is(503));
+        assertThat(String.valueOf(response.getAllValues().get(1).getMetadata().getFirst(HttpHeaders.RETRY_AFTER)), is("30"));
+        assertThat(trippingGuard.getState(), is(CircuitBreaker.State.OPEN));
+        verify(snsPublish, times(1)).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+    }
+
+    @Test
+    public void confirmRefusedSubmissionIsNotGivenAStatus() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        PublishGuard fullGuard = new PublishGuard(new CircuitBreaker("test", 100, 100, Duration.ofMinutes(1), 1, 1, Duration.ofSeconds(30), 1), 0);
+        Ds1500ControllerResource guardedResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, null, statusStore, idempotencyStore, idGenerator, fullGuard, publishRetry);
+
+        guardedResource.post(jsonPayload, null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+        verifyNoInteractions(snsPublish, statusStore);
+    }
+
+    @Test(expected = PublishHeldBackException.class)
+    public void confirmOutboxEntryIsHeldBackWhenTheBulkheadIsFull() throws Exception {
+        PublishGuard fullGuard = new PublishGuard(new CircuitBreaker("test", 100, 100, Duration.ofMinutes(1), 1, 1, Duration.ofSeconds(30), 1), 0);
+        Ds1500ControllerResource guardedResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, null, statusStore, idempotencyStore, idGenerator, fullGuard, publishRetry);
+
+        try {
+            guardedResource.publishOutboxEntry(new OutboxEntry(UUID.randomUUID().toString(), "{}"));
+        } finally {
+            verifyNoInteractions(snsPublish);
+        }
+    }
+
+    @Test
+    public void confirmSubmissionThatTimesOutIsResumedWithServiceUnavailable() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        Ds1500ControllerResource stalledResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, command -> { }, null, statusStore, idempotencyStore, idGenerator, publishGuard, publishRetry);
+
+        stalledResource.post(jsonPayload, null, asyncResponse);
+
+        verify(asyncResponse).setTimeout(30000, TimeUnit.MILLISECONDS);
+        ArgumentCaptor<TimeoutHandler> timeoutHandler = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(asyncResponse).setTimeoutHandler(timeoutHandler.capture());
+        timeoutHandler.getValue().handleTimeout(asyncResponse);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+    }
+
+    @Test
+    public void confirmPublishStillQueuedAtTheTimeoutIsDropped() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        List<Runnable> queued = new ArrayList<>();
+        Ds1500ControllerResource queueingResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, queued::add, null, statusStore, idempotencyStore, idGenerator, publishGuard, publishRetry);
+
+        queueingResource.post(jsonPayload, null, asyncResponse);
+        ArgumentCaptor<TimeoutHandler> timeoutHandler = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(asyncResponse).setTimeoutHandler(timeoutHandler.capture());
+        timeoutHandler.getValue().handleTimeout(asyncResponse);
+        queued.forEach(Runnable::run);
+
+        verifyNoInteractions(snsPublish);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse, times(2)).resume(response.capture());
+        assertThat(response.getAllValues().get(0).getStatus(), is(503));
+        assertThat(response.getAllValues().get(1).getStatus(), is(503));
+    }
+
+    @Test
+    public void confirmPublishIsNotRetriedAfterTheTimeout() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        doThrow(new EventsMessageException("thrown in test")).when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+        AtomicReference<TimeoutHandler> timeoutHandler = new AtomicReference<>();
+        doAnswer(invocation -> {
+            timeoutHandler.set(invocation.getArgument(0));
+            return null;
+        }).when(asyncResponse).setTimeoutHandler(any(TimeoutHandler.class));
+        PublishRetry retrying = new PublishRetry(3, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofSeconds(5), Ticker.systemTicker(), nanos -> timeoutHandler.get().handleTimeout(asyncResponse));
+        Ds1500ControllerResource retryingResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, null, statusStore, idempotencyStore, idGenerator, publishGuard, retrying);
+
+        retryingResource.post(jsonPayload, null, asyncResponse);
+
+        verify(snsPublish, times(1)).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse, times(2)).resume(response.capture());
+        assertThat(response.getAllValues().get(1).getStatus(), is(503));
+    }
+
+    @Test
+    public void confirmUnexpectedPublishFailureIsResumedAsAnError() throws Exception {
+        String jsonPayload = "{}";
+        IllegalStateException failure = new IllegalStateException("thrown in test");
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        doThrow(failure).when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+
+        resourceUnderTest.post(jsonPayload, null, asyncResponse);
+
+        verify(asyncResponse).resume(failure);
+    }
+
+    @Test
+    public void confirmOutboxModeAcceptsWithoutPublishing() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        Path directory = Files.createTempDirectory("outbox");
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        Ds1500ControllerResource outboxResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, outbox, statusStore, idempotencyStore, idGenerator, publishGuard, publishRetry);
+
+        outboxResource.post(jsonPayload, null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(202));
+        UUID.fromString(new ObjectMapper().readTree(response.getValue().getEntity().toString()).get("id").textValue());
+        assertThat(outbox.getBacklog(), is(1L));
+        verifyNoInteractions(snsPublish);
+        verifyNoInteractions(publishExecutor);
+        outbox.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void confirmOutboxEntryIsPublishedWithItsCorrelationId() throws Exception {
+        resourceUnderTest.publishOutboxEntry(new OutboxEntry("a1b2", "{\"payload\":{},\"metadata\":{}}"));
+
+        ArgumentCaptor<EventMessage> event = ArgumentCaptor.forClass(EventMessage.class);
+        verify(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), event.capture(), eq(null));
+        assertThat(event.getValue().getMetaData().getCorrelationId(), is("a1b2"));
+        assertThat(event.getValue().getMetaData().getRoutingKey(), is(ROUTING_KEY));
+    }
+
+    @Test
+    public void confirmPublishedSubmissionStatusCanBeLookedUp() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+
+        String id = new ObjectMapper().readTree(post(jsonPayload).getEntity().toString()).get("id").textValue();
+        Response status = resourceUnderTest.status(id);
+
+        assertThat(status.getStatus(), is(200));
+        assertThat(status.getEntity().toString(), is(String.format("{\"id\":\"%s\",\"status\":\"published\"}", id)));
+    }
+
+    @Test
+    public void confirmFailedPublishIsRecorded() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        doThrow(new EventsMessageException("thrown in test")).when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+
+        assertThat(post(jsonPayload).getStatus(), is(500));
+
+        ArgumentCaptor<UUID> id = ArgumentCaptor.forClass(UUID.class);
+        verify(statusStore).record(id.capture(), eq(SubmissionStatus.ACCEPTED));
+        assertThat(statusStore.lookup(id.getValue()), is(Optional.of(SubmissionStatus.FAILED)));
+    }
+
+    @Test
+    public void confirmOutboxPublishIsRecorded() throws Exception {
+        UUID id = UUID.randomUUID();
+        resourceUnderTest.publishOutboxEntry(new OutboxEntry(id.toString(), "{}"));
+
+        assertThat(statusStore.lookup(id), is(Optional.of(SubmissionStatus.PUBLISHED)));
+    }
+
+    @Test
+    public void confirmFailedOutboxPublishLeavesTheSubmissionAccepted() throws Exception {
+        UUID id = UUID.randomUUID();
+        statusStore.record(id, SubmissionStatus.ACCEPTED);
+        doThrow(new EventsMessageException("thrown in test")).when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+
+        try {
+            resourceUnderTest.publishOutboxEntry(new OutboxEntry(id.toString(), "{}"));
+            fail("Publishing to an unavailable SNS should throw an exception");
+        } catch (EventsMessageException e) {
+            assertThat(statusStore.lookup(id), is(Optional.of(SubmissionStatus.ACCEPTED)));
+        }
+    }
+
+    @Test
+    public void confirmDeadLetteredOutboxEntryIsRecordedAsFailed() {
+        UUID id = UUID.randomUUID();
+        statusStore.record(id, SubmissionStatus.ACCEPTED);
+
+        resourceUnderTest.outboxEntryDeadLettered(new OutboxEntry(id.toString(), "{}"));
+
+        assertThat(statusStore.lookup(id), is(Optional.of(SubmissionStatus.FAILED)));
+    }
+
+    @Test
+    public void confirmUnknownSubmissionIsNotFound() {
+        assertThat(resourceUnderTest.status(UUID.randomUUID().toString()).getStatus(), is(404));
+    }
+
+    @Test
+    public void confirmMalformedSubmissionIdIsABadRequest() {
+        assertThat(resourceUnderTest.status("not-a-uuid").getStatus(), is(400));
+    }
+
+    @Test
+    public void confirmRepeatedIdempotencyKeyIsOnlyPublishedOnce() throws Exception {
+        String jsonPayload = "{}";
+        when(validator.validateAndTranslate(jsonPayload)).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        AsyncResponse retryResponse = mock(AsyncResponse.class);
+
+        resourceUnderTest.post(jsonPayload, "retry-key", asyncResponse);
+        resourceUnderTest.post(jsonPayload, "retry-key", retryResponse);
+
+        ArgumentCaptor<Response> original = ArgumentCaptor.forClass(Response.class);
+        ArgumentCaptor<Response> retried = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(original.capture());
+        verify(retryResponse).resume(retried.capture());
+        assertThat(retried.getValue().getStatus(), is(200));
+        assertThat(retried.getValue().getEntity(), is(original.getValue().getEntity()));
+        verify(validator, times(1)).validateAndTranslate(jsonPayload);
+        verify(snsPublish, times(1)).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+    }
+
+    @Test
+    public void confirmOverlongIdempotencyKeyIsRejected() {
+        resourceUnderTest.post("{}", "k".repeat(256), asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(400));
+        verifyNoInteractions(validator);
+    }
+
+    @Test
+    public void confirmBatchReportsAnIdOrAnErrorForEachSubmission() throws Exception {
+        when(validator.validateAndTranslate("{\"n\":1}")).thenReturn(new DSForm());
+        when(validator.validateAndTranslate("{\"n\":2}")).thenThrow(new InvalidJsonException("thrown in test"));
+        when(validator.validateAndTranslate("{\"n\":3}")).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+
+        Response response = postBatch("[{\"n\":1},{\"n\":2},{\"n\":3}]");
+
+        assertThat(response.getStatus(), is(200));
+        JsonNode results = new ObjectMapper().readTree(response.getEntity().toString());
+        assertThat(results.size(), is(3));
+        UUID first = UUID.fromString(results.get(0).get("id").textValue());
+        assertThat(results.get(1).get("error").textValue(), is("JSON payload failed validation"));
+        UUID.fromString(results.get(2).get("id").textValue());
+        assertThat(statusStore.lookup(first), is(Optional.of(SubmissionStatus.PUBLISHED)));
+        verify(snsPublish, times(2)).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+    }
+
+    @Test
+    public void confirmNdjsonBatchIsPublishedInGroups() throws Exception {
+        when(validator.validateAndTranslate(anyString())).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+
+        Response response = postBatch(String.join("\n", Collections.nCopies(25, "{}")));
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(new ObjectMapper().readTree(response.getEntity().toString()).size(), is(25));
+        verify(publishExecutor, times(25)).execute(any(Runnable.class));
+        verify(snsPublish, times(25)).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+    }
+
+    @Test
+    public void confirmFailedBatchPublishIsReportedAgainstItsSubmission() throws Exception {
+        when(validator.validateAndTranslate(anyString())).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        doThrow(new EventsMessageException("thrown in test")).when(snsPublish).publishMessageToSnsTopic(eq(true), eq(MSG_TOPIC), eq(MSG_SUBJECT), any(EventMessage.class), eq(null));
+
+        Response response = postBatch("[{}]");
+
+        assertThat(response.getStatus(), is(200));
+        JsonNode results = new ObjectMapper().readTree(response.getEntity().toString());
+        assertNull(results.get(0).get("id"));
+        assertThat(results.get(0).get("error").isTextual(), is(true));
+    }
+
+    @Test
+    public void confirmOversizeBatchIsRejected() {
+        BatchPayloads twoAtATime = new BatchPayloads(new InputLimits(1024, 64, 4, 16, 8192, 2));
+        Ds1500ControllerResource limitedResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, twoAtATime, publishExecutor, null, statusStore, idempotencyStore, idGenerator, publishGuard, publishRetry);
+
+        limitedResource.postBatch("[{},{},{}]", asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(400));
+        verifyNoInteractions(validator);
+        verifyNoInteractions(snsPublish);
+    }
+
+    @Test
+    public void confirmOutboxModeAcceptsABatchTogether() throws Exception {
+        when(validator.validateAndTranslate(anyString())).thenReturn(new DSForm());
+        when(metadataBuilder.buildPayload(any(DSForm.class), any(LocalDate.class))).thenReturn(new Ds1500Metadata());
+        Path directory = Files.createTempDirectory("outbox");
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        Ds1500ControllerResource outboxResource = new Ds1500ControllerResource(configuration, snsPublish, retriever, retriever, validator, metadataBuilder, jsonCodec, batchPayloads, publishExecutor, outbox, statusStore, idempotencyStore, idGenerator, publishGuard, publishRetry);
+
+        outboxResource.postBatch("{}\n{}\n{}", asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(202));
+        assertThat(outbox.getBacklog(), is(3L));
+        assertThat(outbox.getSyncCount(), is(1L));
+        verifyNoInteractions(snsPublish);
+        outbox.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void confirmValidFormPassesPreFlightValidation() throws Exception {
+        when(validator.validationFailures("{}")).thenReturn(Collections.emptyList());
+
+        Response response = resourceUnderTest.validate("{}");
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getEntity(), is("{\"valid\":true}"));
+        verifyNoInteractions(metadataBuilder, snsPublish, retriever, publishExecutor);
+    }
+
+    @Test
+    public void confirmPreFlightValidationListsEveryFailure() throws Exception {
+        when(validator.validationFailures("{}")).thenReturn(Arrays.asList("patientName is a mandatory field", "Nino Validation Failed"));
+
+        Response response = resourceUnderTest.validate("{}");
+
+        assertThat(response.getStatus(), is(400));
+        JsonNode result = new ObjectMapper().readTree(response.getEntity().toString());
+        assertThat(result.get("valid").booleanValue(), is(false));
+        assertThat(result.get("errors").size(), is(2));
+        assertThat(result.get("errors").get(1).textValue(), is("Nino Validation Failed"));
+        verifyNoInteractions(metadataBuilder, snsPublish, retriever, publishExecutor);
+    }
+
+    private Response postBatch(String body) {
+        resourceUnderTest.postBatch(body, asyncResponse);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        return response.getValue();
+    }
+
+    private Response post(String jsonPayload) {
+        resourceUnderTest.post(jsonPayload, null, asyncResponse);
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        return response.getValue();
+    }
+
+    static class DirectExecutor implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
     }
 }
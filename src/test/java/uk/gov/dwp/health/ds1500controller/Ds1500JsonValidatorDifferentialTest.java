@@ -0,0 +1,13 @@
+package uk.gov.dwp.health.ds1500controller;
+
+/**
+ * Replays the whole {@link Ds1500JsonValidatorTest} corpus through {@link DifferentialJsonValidator}
+ * so the streaming parser is checked against the original tree based validator on every payload.
+ */
+public class Ds1500JsonValidatorDifferentialTest extends Ds1500JsonValidatorTest {
+
+    @Override
+    protected Ds1500JsonValidator createValidator() {
+        return new DifferentialJsonValidator();
+    }
+}
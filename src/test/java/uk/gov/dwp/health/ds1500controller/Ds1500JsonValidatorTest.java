@@ -7,9 +7,13 @@ import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException
 
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -21,7 +25,11 @@ public class Ds1500JsonValidatorTest {
 
     private static final String STRING_WITH_TOO_MANY_CHARACTERS = "\"abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyzabcdefg hijk\"";
     private static final String STRING_WITH_INVALID_CHARACTERS = "\"&lt;script&gt;$(document).ready(function(){alert('malicious');});&lt;/script&gt;\"";
-    private final Ds1500JsonValidator validator = new Ds1500JsonValidator();
+    private final Ds1500JsonValidator validator = createValidator();
+
+    protected Ds1500JsonValidator createValidator() {
+        return new Ds1500JsonValidator();
+    }
 
 
     @Test
@@ -939,6 +947,39 @@ public class Ds1500JsonValidatorTest {
         validateAndCatchException(partialJsonResponse, "Date is in the future");
     }
 
+    @Test
+    public void confirmValidFormHasNoValidationFailures() {
+        assertThat(validator.validationFailures(buildFullRequest()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void confirmEveryValidationFailureIsListedInFormOrder() {
+        String jsonPayload = buildFullRequest()
+                .replace("Fake Man", "F4ke Man")
+                .replace("AA370773A", "XX1")
+                .replace("0114 258 8520", "not a phone");
+
+        List<String> failures = validator.validationFailures(jsonPayload);
+
+        assertThat(failures, is(Arrays.asList(
+                "'patientName' contains invalid characters: 'F4KE'",
+                "Nino Validation Failed",
+                "Invalid format for GP Phone number")));
+    }
+
+    @Test
+    public void confirmMissingFieldsAreAllListed() {
+        List<String> failures = validator.validationFailures("{}");
+
+        assertThat(failures, hasItems("patientName is a mandatory field", "treatment is a mandatory field", "gpPhone is a mandatory field"));
+    }
+
+    @Test
+    public void confirmMalformedJsonIsASingleValidationFailure() {
+        assertThat(validator.validationFailures("{\"patientName\":").size(), is(1));
+        assertThat(validator.validationFailures(null), is(Collections.singletonList("JSON payload is missing")));
+    }
+
     private String getDayFromDate(Date date) {
         SimpleDateFormat dayFormat = new SimpleDateFormat("dd");
         return dayFormat.format(date);
@@ -0,0 +1,146 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class IdempotencyStoreTest {
+    private final ManualTicker ticker = new ManualTicker();
+    private final IdempotencyStore storeUnderTest = new IdempotencyStore(100, Duration.ofMinutes(10), 4, ticker);
+    private final AtomicInteger submissions = new AtomicInteger();
+
+    @Test
+    public void repeatedKeyReturnsTheOriginalResponseWithoutResubmitting() throws Exception {
+        Response first = storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+        Response repeat = storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+
+        assertThat(submissions.get(), is(1));
+        assertThat(repeat.getStatus(), is(200));
+        assertThat(repeat.getEntity(), is(first.getEntity()));
+        assertThat(repeat.getMediaType(), is(MediaType.APPLICATION_JSON_TYPE));
+        assertThat(repeat, not(sameInstance(first)));
+        assertThat(storeUnderTest.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void differentKeysAreSubmittedSeparately() throws Exception {
+        storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+        storeUnderTest.submitOnce("key-2", () -> submit(200)).get();
+
+        assertThat(submissions.get(), is(2));
+    }
+
+    @Test
+    public void concurrentDuplicateWaitsForTheFirstResult() throws Exception {
+        CompletableFuture<Response> inFlight = new CompletableFuture<>();
+        CompletableFuture<Response> first = storeUnderTest.submitOnce("key-1", () -> inFlight);
+        CompletableFuture<Response> duplicate = storeUnderTest.submitOnce("key-1", () -> submit(200));
+
+        assertThat(duplicate.isDone(), is(false));
+        inFlight.complete(Response.ok("{\"id\":\"abc\"}", MediaType.APPLICATION_JSON_TYPE).build());
+
+        assertThat(first.get().getEntity(), is("{\"id\":\"abc\"}"));
+        assertThat(duplicate.get().getEntity(), is("{\"id\":\"abc\"}"));
+        assertThat(submissions.get(), is(0));
+    }
+
+    @Test
+    public void failedResponseReleasesTheKey() throws Exception {
+        assertThat(storeUnderTest.submitOnce("key-1", () -> submit(503)).get().getStatus(), is(503));
+        assertThat(storeUnderTest.submitOnce("key-1", () -> submit(200)).get().getStatus(), is(200));
+
+        assertThat(submissions.get(), is(2));
+    }
+
+    @Test
+    public void exceptionReleasesTheKeyAndReachesWaiters() throws Exception {
+        CompletableFuture<Response> inFlight = new CompletableFuture<>();
+        CompletableFuture<Response> first = storeUnderTest.submitOnce("key-1", () -> inFlight);
+        CompletableFuture<Response> duplicate = storeUnderTest.submitOnce("key-1", () -> submit(200));
+        IllegalStateException failure = new IllegalStateException("thrown in test");
+        inFlight.completeExceptionally(failure);
+
+        assertThat(causeOf(first), is(failure));
+        assertThat(causeOf(duplicate), is(failure));
+        assertThat(storeUnderTest.submitOnce("key-1", () -> submit(200)).get().getStatus(), is(200));
+    }
+
+    @Test
+    public void submissionThatThrowsIsReportedThroughTheFuture() {
+        IllegalStateException failure = new IllegalStateException("thrown in test");
+
+        CompletableFuture<Response> result = storeUnderTest.submitOnce("key-1", () -> {
+            throw failure;
+        });
+
+        assertThat(causeOf(result), is(failure));
+    }
+
+    @Test
+    public void keyExpiresAfterTheWindow() throws Exception {
+        storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+        ticker.advance(TimeUnit.MINUTES.toNanos(10) + 1);
+        storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+
+        assertThat(submissions.get(), is(2));
+    }
+
+    @Test
+    public void hitsAndMissesAreRegistered() throws Exception {
+        MetricRegistry metrics = new MetricRegistry();
+        storeUnderTest.registerMetrics(metrics);
+
+        storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+        storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+        storeUnderTest.submitOnce("key-1", () -> submit(200)).get();
+
+        assertThat(metrics.meter(MetricRegistry.name(IdempotencyStore.class, "hits")).getCount(), is(2L));
+        assertThat(metrics.meter(MetricRegistry.name(IdempotencyStore.class, "misses")).getCount(), is(1L));
+        assertThat(metrics.getGauges().get(MetricRegistry.name(IdempotencyStore.class, "size")).getValue(), is(1L));
+    }
+
+    private CompletableFuture<Response> submit(int status) {
+        int submission = submissions.incrementAndGet();
+        return CompletableFuture.completedFuture(
+                Response.status(status).entity("{\"id\":\"" + submission + "\"}").type(MediaType.APPLICATION_JSON_TYPE).build());
+    }
+
+    private static Throwable causeOf(CompletableFuture<Response> result) {
+        try {
+            result.get();
+            throw new AssertionError("expected the future to fail");
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
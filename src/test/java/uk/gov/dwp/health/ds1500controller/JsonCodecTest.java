@@ -0,0 +1,106 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import uk.gov.dwp.components.drs.DrsPayloadBuilder;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.Ds1500Metadata;
+import uk.gov.dwp.health.ds1500controller.domain.Views;
+import uk.gov.dwp.health.messageq.items.event.EventMessage;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class JsonCodecTest {
+    private static final String VALID_GP_FORM = "{\n" +
+            "  \"patientName\":\"Fake Michael Man\",\n" +
+            "  \"patientAddress\":\"23 Fake Road\\nFake Park\\nFake\",\n" +
+            "  \"patientPostcode\":\"S2 2RZ\",\n" +
+            "  \"patientDateOfBirth-day\":\"15\",\n" +
+            "  \"patientDateOfBirth-month\":\"02\",\n" +
+            "  \"patientDateOfBirth-year\":\"1972\",\n" +
+            "  \"patientNino\":\"AA370773A\",\n" +
+            "  \"diagnosis\":\"Extreme grumpiness\",\n" +
+            "  \"otherDiagnoses\":\"Mild allergies to dub step\",\n" +
+            "  \"diagnosisAware\":\"Yes\",\n" +
+            "  \"patientAware\":\"Yes\",\n" +
+            "  \"dateOfDiagnosis-day\":\"11\",\n" +
+            "  \"dateOfDiagnosis-month\":\"05\",\n" +
+            "  \"dateOfDiagnosis-year\":\"2015\",\n" +
+            "  \"dateOfSpecialRules-day\":\"01\",\n" +
+            "  \"dateOfSpecialRules-month\":\"06\",\n" +
+            "  \"dateOfSpecialRules-year\":\"2015\",\n" +
+            "  \"clinicalFeatures\":\"Patient wears a £ sign & \\\"quotes\\\"\",\n" +
+            "  \"treatment\":\"Beer\",\n" +
+            "  \"declaration\":\"General Practitioner\",\n" +
+            "  \"gmcNumber\":\"1234567\",\n" +
+            "  \"gpName\":\"Dr Hugo Bosh\",\n" +
+            "  \"gpAddress\":\"The Surgery\\nSheffield\",\n" +
+            "  \"gpPostcode\":\"S1 1AA\",\n" +
+            "  \"gpPhone\":\"0114 2588520\"\n" +
+            "}";
+
+    private final JsonCodec codecUnderTest = new JsonCodec();
+
+    @Test
+    public void viewWritersMatchAFreshMapperWithoutDefaultViewInclusion() throws JsonProcessingException {
+        DSForm form = buildForm();
+        ObjectMapper freshMapper = new ObjectMapper();
+        freshMapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
+
+        assertThat(codecUnderTest.writeWithView(form, DSForm.class), is(freshMapper.writerWithView(DSForm.class).writeValueAsString(form)));
+        assertThat(codecUnderTest.writeWithView(form, Views.DsFeeForm.class), is(freshMapper.writerWithView(Views.DsFeeForm.class).writeValueAsString(form)));
+    }
+
+    @Test
+    public void feeViewLeavesOutTheClinicalDetail() throws JsonProcessingException {
+        String feeJson = codecUnderTest.writeWithView(buildForm(), Views.DsFeeForm.class);
+
+        assertThat(feeJson, containsString("\"surname\":\"Fake\""));
+        assertThat(feeJson, not(containsString("clinicalFeatures")));
+    }
+
+    @Test
+    public void plainWriterMatchesAFreshMapper() throws JsonProcessingException {
+        DSForm form = buildForm();
+
+        assertThat(codecUnderTest.write(form), is(new ObjectMapper().writeValueAsString(form)));
+    }
+
+    @Test
+    public void rawDrsPayloadIsPublishedAsTheSameBytesAsTheParsedPayload() throws Exception {
+        DSForm form = new Ds1500JsonValidator().validateAndTranslate(VALID_GP_FORM);
+        Ds1500Metadata metadata = new MetadataBuilder().buildPayload(form, LocalDate.of(2016, 7, 25));
+        String drsJson = new DrsPayloadBuilder<DSForm, Ds1500Metadata>().getDrsPayloadJson(form, metadata);
+
+        EventMessage parsed = new EventMessage();
+        parsed.setBodyContents(new ObjectMapper().readValue(drsJson, Object.class));
+        EventMessage raw = new EventMessage();
+        raw.setBodyContents(codecUnderTest.rawJson(drsJson));
+
+        ObjectMapper publisherMapper = new ObjectMapper();
+        assertThat(publisherMapper.writeValueAsString(raw), is(publisherMapper.writeValueAsString(parsed)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownViewIsRejected() throws JsonProcessingException {
+        codecUnderTest.writeWithView(buildForm(), String.class);
+    }
+
+    private static DSForm buildForm() {
+        DSForm form = new DSForm();
+        form.setSurname("Fake");
+        form.setOtherNames("Man");
+        form.setAddress(new String[]{"1 Street", "Town"});
+        form.setClinicalFeatures("clinical features");
+        form.setDeclarerName("Dr Smith");
+        return form;
+    }
+}
@@ -6,6 +6,8 @@ import com.fasterxml.jackson.databind.node.NullNode;
 import org.junit.Test;
 import uk.gov.dwp.health.ds1500controller.domain.DSForm;
 import uk.gov.dwp.health.ds1500controller.domain.Ds1500Metadata;
+import uk.gov.dwp.health.ds1500controller.utils.IdGenerator;
+import uk.gov.dwp.health.ds1500controller.utils.PackedNino;
 import uk.gov.dwp.regex.InvalidNinoException;
 import uk.gov.dwp.regex.NinoValidator;
 
@@ -13,6 +15,7 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -32,6 +35,25 @@ public class MetadataBuilderTest {
         validateClaimRef(payload.getClaimRef());
     }
 
+    @Test
+    public void confirmClaimRefComesFromTheIdGenerator() throws InvalidNinoException {
+        MetadataBuilder builder = new MetadataBuilder(new IdGenerator() {
+            @Override
+            public UUID correlationId() {
+                return UUID.randomUUID();
+            }
+
+            @Override
+            public String claimRef() {
+                return "abcdefghijklmnopqrstuvwxyz0123";
+            }
+        });
+
+        Ds1500Metadata payload = builder.buildPayload(new DSForm(), LocalDate.of(1996, 10, 15));
+
+        assertThat(payload.getClaimRef(), is("abcdefghijklmnopqrstuvwxyz0123"));
+    }
+
     @Test
     public void confirmMetadataIsAddedToPayload() throws IOException, InvalidNinoException {
         String surname = "Fake";
@@ -139,6 +161,43 @@ public class MetadataBuilderTest {
         validateClaimRef(payload.getClaimRef());
     }
 
+    @Test
+    public void validatedDateOfBirthIsUsedWithoutReparsing() throws IOException, InvalidNinoException {
+        DSForm form = new DSForm();
+        form.setDateOfBirth("not reparsed");
+        form.setPackedDateOfBirth(20000726);
+
+        Ds1500Metadata payload = builderUnderTest.buildPayload(form, LocalDate.of(2016, 7, 25));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode metadata = mapper.readTree(mapper.writeValueAsString(payload));
+
+        checkFieldValue(metadata, "dateOfBirth", 20000726);
+        checkFieldValue(metadata, "businessUnitID", "29");
+        checkFieldValue(metadata, "benefitType", 23);
+    }
+
+    @Test
+    public void validatedNinoIsUsedWithoutReparsing() throws IOException, InvalidNinoException {
+        DSForm form = new DSForm();
+        form.setnINumber("not reparsed");
+        form.setPackedNino(PackedNino.parse("AA370773B"));
+
+        Ds1500Metadata payload = builderUnderTest.buildPayload(form, LocalDate.of(2016, 7, 25));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode metadata = mapper.readTree(mapper.writeValueAsString(payload));
+
+        assertThat(metadata.get("nino").get("ninoBody").textValue(), is("AA370773"));
+        assertThat(metadata.get("nino").get("ninoSuffix").textValue(), is("B"));
+    }
+
+    @Test
+    public void invalidNinoIsLeftOutOfTheMetadata() throws InvalidNinoException {
+        DSForm form = new DSForm();
+        form.setnINumber("GB370773A");
+
+        assertNull(builderUnderTest.buildPayload(form, LocalDate.of(2016, 7, 25)).getNino());
+    }
+
     @Test
     public void confirmBlankFormDoesNotErrorAndSetsStaticValues() throws IOException, InvalidNinoException {
         DSForm form = new DSForm();
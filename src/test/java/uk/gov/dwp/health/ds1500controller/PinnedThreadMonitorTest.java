@@ -0,0 +1,73 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.utils.VirtualThreads;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class PinnedThreadMonitorTest {
+    private final Object lock = new Object();
+
+    @Test
+    public void pinsAreCountedAndRegistered() {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(20));
+        MetricRegistry metrics = new MetricRegistry();
+        monitor.registerMetrics(metrics);
+
+        monitor.recordPin(Duration.ofMillis(35), "uk.gov.dwp.Example.publish:12");
+
+        assertThat(monitor.getPinnedCount(), is(1L));
+        assertThat(metrics.meter(MetricRegistry.name(PinnedThreadMonitor.class, "pinned")).getCount(), is(1L));
+    }
+
+    @Test
+    public void monitorStartsAndStopsWhetherOrNotTheRuntimeHasVirtualThreads() {
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(20));
+
+        monitor.start();
+        monitor.stop();
+
+        assertThat(monitor.getPinnedCount(), is(0L));
+    }
+
+    @Test
+    public void stopWithoutStartIsHarmless() {
+        new PinnedThreadMonitor(Duration.ofMillis(20)).stop();
+    }
+
+    @Test
+    public void sleepingInsideASynchronizedBlockIsReported() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(20));
+        monitor.start();
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("pinning-");
+
+        try {
+            executor.submit(this::sleepWhileHoldingTheLock).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (monitor.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            // JDK 24 and later no longer pin the carrier inside synchronized blocks
+            assumeTrue(Runtime.version().feature() < 24);
+            assertThat(monitor.getPinnedCount() > 0, is(true));
+        } finally {
+            executor.shutdown();
+            monitor.stop();
+        }
+    }
+
+    private Void sleepWhileHoldingTheLock() throws InterruptedException {
+        synchronized (lock) {
+            Thread.sleep(100);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+import uk.gov.dwp.health.crypto.exceptions.EventsMessageException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class PublishGuardTest {
+    private final ManualTicker ticker = new ManualTicker();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 100, Duration.ofSeconds(1), 2, 2, Duration.ofSeconds(30), 1, ticker);
+    private final PublishGuard guardUnderTest = new PublishGuard(circuitBreaker, 2, ticker);
+
+    @Test
+    public void bulkheadLimitsConcurrentPublishes() {
+        assertThat(guardUnderTest.tryEnter(), is(true));
+        assertThat(guardUnderTest.tryEnter(), is(true));
+        assertThat(guardUnderTest.tryEnter(), is(false));
+
+        guardUnderTest.exit();
+        assertThat(guardUnderTest.tryEnter(), is(true));
+    }
+
+    @Test
+    public void openBreakerRefusesWithoutHoldingABulkheadPlace() throws Exception {
+        publish(() -> {
+            throw new EventsMessageException("thrown in test");
+        });
+        publish(() -> {
+            throw new EventsMessageException("thrown in test");
+        });
+
+        assertThat(guardUnderTest.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(guardUnderTest.tryEnter(), is(false));
+        assertThat(guardUnderTest.getRetryAfterSeconds(), is(30L));
+
+        ticker.advance(TimeUnit.SECONDS.toNanos(30));
+        assertThat(guardUnderTest.tryEnter(), is(true));
+    }
+
+    @Test
+    public void callRethrowsWhatTheSnsCallThrew() {
+        EventsMessageException failure = new EventsMessageException("thrown in test");
+        guardUnderTest.tryEnter();
+
+        try {
+            guardUnderTest.call(() -> {
+                throw failure;
+            });
+            fail("call should have thrown");
+
+        } catch (Exception e) {
+            assertThat(e, is(sameInstance(failure)));
+        }
+    }
+
+    @Test
+    public void failuresThatAreNotSnsFailuresLeaveTheBreakerClosed() throws Exception {
+        publish(() -> {
+            throw new JsonParseException(null, "thrown in test");
+        });
+        publish(() -> {
+            throw new IllegalArgumentException("thrown in test");
+        });
+
+        assertThat(guardUnderTest.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void slowSnsCallsOpenTheBreaker() throws Exception {
+        publish(() -> ticker.advance(TimeUnit.SECONDS.toNanos(2)));
+        publish(() -> ticker.advance(TimeUnit.SECONDS.toNanos(2)));
+
+        assertThat(guardUnderTest.getState(), is(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    public void timeOutsideTheSnsCallIsNotCounted() throws Exception {
+        assertThat(guardUnderTest.tryEnter(), is(true));
+        assertThat(guardUnderTest.tryEnter(), is(true));
+        ticker.advance(TimeUnit.SECONDS.toNanos(2));
+
+        guardUnderTest.call(() -> { });
+        ticker.advance(TimeUnit.SECONDS.toNanos(2));
+        guardUnderTest.call(() -> { });
+        guardUnderTest.exit();
+        guardUnderTest.exit();
+
+        assertThat(guardUnderTest.getState(), is(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void publishThatNeverCallsSnsLeavesTheBreakerAlone() {
+        for (int i = 0; i < 3; i++) {
+            guardUnderTest.tryEnter();
+            guardUnderTest.exit();
+        }
+
+        assertThat(guardUnderTest.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(guardUnderTest.tryEnter(), is(true));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void bulkheadUseIsReportedAsMetrics() {
+        MetricRegistry metrics = new MetricRegistry();
+        guardUnderTest.registerMetrics(metrics);
+
+        guardUnderTest.tryEnter();
+        guardUnderTest.tryEnter();
+        guardUnderTest.tryEnter();
+
+        Gauge<Integer> inFlight = metrics.getGauges().get(MetricRegistry.name(PublishGuard.class, "inFlight"));
+        assertThat(inFlight.getValue(), is(2));
+        assertThat(metrics.meter(MetricRegistry.name(PublishGuard.class, "bulkheadFull")).getCount(), is(1L));
+    }
+
+    private void publish(PublishRetry.Attempt snsCall) throws Exception {
+        assertThat(guardUnderTest.tryEnter(), is(true));
+        try {
+            guardUnderTest.call(snsCall);
+        } catch (Exception e) {
+            // left to the breaker
+        } finally {
+            guardUnderTest.exit();
+        }
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
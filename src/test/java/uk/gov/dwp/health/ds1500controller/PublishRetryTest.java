@@ -0,0 +1,157 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+import uk.gov.dwp.health.crypto.exception.CryptoException;
+import uk.gov.dwp.health.crypto.exceptions.EventsMessageException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class PublishRetryTest {
+    private static final long BASE = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX = TimeUnit.MILLISECONDS.toNanos(300);
+
+    private final ManualTicker ticker = new ManualTicker();
+    private final List<Long> sleeps = new ArrayList<>();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final PublishRetry retryUnderTest = new PublishRetry(5, Duration.ofMillis(100), Duration.ofMillis(300), Duration.ofSeconds(10), ticker, this::sleep);
+
+    @Test
+    public void successIsNotRetried() throws Exception {
+        retryUnderTest.run(attempts::incrementAndGet, retryUnderTest.deadlineFromNow());
+
+        assertThat(attempts.get(), is(1));
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    public void transientFailuresAreRetriedUntilTheyPass() throws Exception {
+        retryUnderTest.run(failing(2, new EventsMessageException("throttled")), retryUnderTest.deadlineFromNow());
+
+        assertThat(attempts.get(), is(3));
+        assertThat(sleeps.size(), is(2));
+    }
+
+    @Test
+    public void cryptoFailuresAreRetried() throws Exception {
+        retryUnderTest.run(failing(1, new CryptoException("kms throttled")), retryUnderTest.deadlineFromNow());
+
+        assertThat(attempts.get(), is(2));
+    }
+
+    @Test
+    public void permanentFailuresAreNotRetried() {
+        JsonProcessingException failure = new JsonProcessingException("bad json") {};
+
+        assertFails(failing(5, failure), retryUnderTest.deadlineFromNow(), failure);
+        assertThat(attempts.get(), is(1));
+    }
+
+    @Test
+    public void runtimeFailuresAreNotRetried() {
+        IllegalStateException failure = new IllegalStateException("bug");
+
+        assertFails(failing(5, failure), retryUnderTest.deadlineFromNow(), failure);
+        assertThat(attempts.get(), is(1));
+    }
+
+    @Test
+    public void theLastFailureIsThrownOnceAttemptsRunOut() {
+        EventsMessageException failure = new EventsMessageException("throttled");
+
+        assertFails(failing(10, failure), retryUnderTest.deadlineFromNow(), failure);
+        assertThat(attempts.get(), is(5));
+    }
+
+    @Test
+    public void waitsUseFullJitterUnderAnExponentialCap() throws Exception {
+        retryUnderTest.run(failing(4, new EventsMessageException("throttled")), Long.MAX_VALUE);
+
+        long[] caps = {BASE, 2 * BASE, MAX, MAX};
+        for (int i = 0; i < caps.length; i++) {
+            assertTrue("wait " + i + " was " + sleeps.get(i), sleeps.get(i) >= 0 && sleeps.get(i) <= caps[i]);
+        }
+    }
+
+    @Test
+    public void noWaitRunsPastTheDeadline() {
+        EventsMessageException failure = new EventsMessageException("throttled");
+        long deadline = ticker.read() + TimeUnit.MILLISECONDS.toNanos(250);
+
+        assertFails(failing(10, failure), deadline, failure);
+
+        assertTrue(ticker.read() <= deadline);
+        assertTrue(attempts.get() < 5);
+    }
+
+    @Test
+    public void nothingIsRetriedOnceTheDeadlineHasPassed() {
+        EventsMessageException failure = new EventsMessageException("throttled");
+
+        assertFails(failing(10, failure), ticker.read(), failure);
+        assertThat(attempts.get(), is(1));
+    }
+
+    @Test
+    public void retriesAndRetryTimeAreRecordedPerRequest() throws Exception {
+        MetricRegistry metrics = new MetricRegistry();
+        retryUnderTest.registerMetrics(metrics);
+
+        retryUnderTest.run(() -> {}, retryUnderTest.deadlineFromNow());
+        retryUnderTest.run(failing(2, new EventsMessageException("throttled")), retryUnderTest.deadlineFromNow());
+
+        assertThat(metrics.histogram(MetricRegistry.name(PublishRetry.class, "retries")).getCount(), is(2L));
+        assertThat(metrics.histogram(MetricRegistry.name(PublishRetry.class, "retries")).getSnapshot().getMax(), is(2L));
+        assertThat(metrics.timer(MetricRegistry.name(PublishRetry.class, "retryTime")).getCount(), is(1L));
+        assertThat(metrics.timer(MetricRegistry.name(PublishRetry.class, "retryTime")).getSnapshot().getMax(), is(sleeps.get(0) + sleeps.get(1)));
+    }
+
+    private PublishRetry.Attempt failing(int failures, Exception failure) {
+        return () -> {
+            if (attempts.incrementAndGet() <= failures) {
+                throw failure;
+            }
+        };
+    }
+
+    private void assertFails(PublishRetry.Attempt attempt, long deadline, Exception expected) {
+        try {
+            retryUnderTest.run(attempt, deadline);
+            fail("publish should have failed");
+
+        } catch (Exception e) {
+            assertThat(e, is(sameInstance(expected)));
+        }
+    }
+
+    private void sleep(long nanos) {
+        sleeps.add(nanos);
+        ticker.advance(nanos);
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.dwp.health.ds1500controller.validation.InputLimits;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestSizeFilterTest {
+    private final InputLimits limits = new InputLimits(8, 16, 4, 10, 12, 2);
+    private final RequestSizeFilter filterUnderTest = new RequestSizeFilter(limits);
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private UriInfo uriInfo;
+
+    @Test
+    public void requestWithoutABodyIsIgnored() throws IOException {
+        when(requestContext.hasEntity()).thenReturn(false);
+
+        filterUnderTest.filter(requestContext);
+
+        verify(requestContext, never()).getEntityStream();
+        verify(requestContext, never()).abortWith(any(Response.class));
+    }
+
+    @Test
+    public void declaredLengthOverTheLimitIsRejectedWithoutReadingTheBody() throws IOException {
+        when(requestContext.hasEntity()).thenReturn(true);
+        onPath("controller");
+        when(requestContext.getLength()).thenReturn(9);
+
+        filterUnderTest.filter(requestContext);
+
+        verify(requestContext, never()).getEntityStream();
+        assertThat(abortStatus(), is(413));
+        assertThat(limits.getOversizeBodyCount(), is(1L));
+    }
+
+    @Test
+    public void undeclaredBodyOverTheLimitIsRejected() throws IOException {
+        when(requestContext.hasEntity()).thenReturn(true);
+        onPath("controller");
+        when(requestContext.getLength()).thenReturn(-1);
+        when(requestContext.getEntityStream()).thenReturn(stream("{\"a\":\"bc\"}"));
+
+        filterUnderTest.filter(requestContext);
+
+        assertThat(abortStatus(), is(413));
+        verify(requestContext, never()).setEntityStream(any(InputStream.class));
+        assertThat(limits.getOversizeBodyCount(), is(1L));
+    }
+
+    @Test
+    public void bodyWithinTheLimitIsPassedOn() throws IOException {
+        when(requestContext.hasEntity()).thenReturn(true);
+        onPath("controller");
+        when(requestContext.getLength()).thenReturn(-1);
+        when(requestContext.getEntityStream()).thenReturn(stream("{\"a\":1}"));
+
+        filterUnderTest.filter(requestContext);
+
+        ArgumentCaptor<InputStream> body = ArgumentCaptor.forClass(InputStream.class);
+        verify(requestContext).setEntityStream(body.capture());
+        verify(requestContext, never()).abortWith(any(Response.class));
+        assertThat(new String(body.getValue().readAllBytes(), StandardCharsets.UTF_8), is("{\"a\":1}"));
+        assertThat(limits.getOversizeBodyCount(), is(0L));
+    }
+
+    @Test
+    public void batchBodyHasItsOwnLimit() throws IOException {
+        when(requestContext.hasEntity()).thenReturn(true);
+        onPath("controller/batch");
+        when(requestContext.getLength()).thenReturn(-1);
+        when(requestContext.getEntityStream()).thenReturn(stream("[{\"a\":\"bc\"}]"));
+
+        filterUnderTest.filter(requestContext);
+
+        verify(requestContext, never()).abortWith(any(Response.class));
+        verify(requestContext).setEntityStream(any(InputStream.class));
+    }
+
+    @Test
+    public void batchBodyOverItsLimitIsRejected() throws IOException {
+        when(requestContext.hasEntity()).thenReturn(true);
+        onPath("controller/batch");
+        when(requestContext.getLength()).thenReturn(13);
+
+        filterUnderTest.filter(requestContext);
+
+        assertThat(abortStatus(), is(413));
+    }
+
+    private void onPath(String path) {
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        when(uriInfo.getPath()).thenReturn(path);
+    }
+
+    private int abortStatus() {
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(requestContext).abortWith(response.capture());
+        return response.getValue().getStatus();
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.SubmissionStatus;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SubmissionStatusStoreTest {
+    private final ManualTicker ticker = new ManualTicker();
+    private final SubmissionStatusStore storeUnderTest = new SubmissionStatusStore(2, Duration.ofMinutes(10), ticker);
+
+    @Test
+    public void latestStatusIsReturned() {
+        UUID id = UUID.randomUUID();
+        storeUnderTest.record(id, SubmissionStatus.ACCEPTED);
+        assertThat(storeUnderTest.lookup(id), is(Optional.of(SubmissionStatus.ACCEPTED)));
+
+        storeUnderTest.record(id, SubmissionStatus.PUBLISHED);
+        assertThat(storeUnderTest.lookup(id), is(Optional.of(SubmissionStatus.PUBLISHED)));
+    }
+
+    @Test
+    public void unknownIdIsEmpty() {
+        assertThat(storeUnderTest.lookup(UUID.randomUUID()), is(Optional.empty()));
+    }
+
+    @Test
+    public void statusExpiresAfterTheTtl() {
+        UUID id = UUID.randomUUID();
+        storeUnderTest.record(id, SubmissionStatus.FAILED);
+
+        ticker.advance(TimeUnit.MINUTES.toNanos(10) + 1);
+
+        assertThat(storeUnderTest.lookup(id), is(Optional.empty()));
+    }
+
+    @Test
+    public void storeNeverGrowsBeyondItsMaximumSize() {
+        MetricRegistry metrics = new MetricRegistry();
+        storeUnderTest.registerMetrics(metrics);
+
+        for (int i = 0; i < 100; i++) {
+            storeUnderTest.record(UUID.randomUUID(), SubmissionStatus.ACCEPTED);
+        }
+
+        Gauge<?> size = metrics.getGauges().get(MetricRegistry.name(SubmissionStatusStore.class, "size"));
+        assertThat(size.getValue(), is(2L));
+    }
+
+    @Test
+    public void labelsAreLowerCase() {
+        assertThat(SubmissionStatus.ACCEPTED.label(), is("accepted"));
+        assertThat(SubmissionStatus.PUBLISHED.label(), is("published"));
+        assertThat(SubmissionStatus.FAILED.label(), is("failed"));
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import com.codahale.metrics.health.HealthCheck;
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ValidationWarmUpTest {
+    private final RecordingValidator validator = new RecordingValidator();
+
+    @Test
+    public void validAndInvalidSubmissionsArePushedThroughEveryIteration() {
+        new ValidationWarmUp(validator, new MetadataBuilder(), new JsonCodec(), 3).run();
+
+        assertThat(validator.outcomes.size(), is(27));
+        assertThat(validator.outcomes.subList(0, 9), is(validator.outcomes.subList(18, 27)));
+        assertThat(validator.outcomes.subList(0, 3), is(List.of("accepted", "accepted", "accepted")));
+        assertThat(validator.outcomes.subList(3, 9).contains("accepted"), is(false));
+    }
+
+    @Test
+    public void healthCheckOnlyPassesOnceWarmUpHasRun() {
+        ValidationWarmUp warmUp = new ValidationWarmUp(validator, new MetadataBuilder(), new JsonCodec(), 1);
+        WarmUpHealthCheck healthCheck = new WarmUpHealthCheck(warmUp);
+
+        assertThat(healthCheck.execute().isHealthy(), is(false));
+        assertThat(warmUp.isComplete(), is(false));
+
+        warmUp.run();
+
+        HealthCheck.Result result = healthCheck.execute();
+        assertThat(result.isHealthy(), is(true));
+        assertThat(result.getMessage(), containsString("warmed up in " + warmUp.getDurationMillis() + " ms"));
+    }
+
+    @Test
+    public void startRunsTheWarmUpInTheBackground() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingValidator blocking = new BlockingValidator(release);
+        ValidationWarmUp warmUp = new ValidationWarmUp(blocking, new MetadataBuilder(), new JsonCodec(), 1);
+        WarmUpHealthCheck healthCheck = new WarmUpHealthCheck(warmUp);
+
+        warmUp.start();
+
+        assertThat(healthCheck.execute().isHealthy(), is(false));
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!warmUp.isComplete() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(healthCheck.execute().isHealthy(), is(true));
+    }
+
+    @Test
+    public void stopAbandonsTheRemainingIterations() {
+        ValidationWarmUp warmUp = new ValidationWarmUp(validator, new MetadataBuilder(), new JsonCodec(), 3);
+
+        warmUp.stop();
+        warmUp.run();
+
+        assertThat(validator.outcomes.isEmpty(), is(true));
+    }
+
+    @Test
+    public void warmUpThatThrowsStillCompletes() {
+        ValidationWarmUp warmUp = new ValidationWarmUp(new Ds1500JsonValidator() {
+            @Override
+            public DSForm validateAndTranslate(String jsonPayload) {
+                throw new IllegalStateException("thrown in test");
+            }
+        }, new MetadataBuilder(), new JsonCodec(), 3);
+
+        warmUp.run();
+
+        assertThat(warmUp.isComplete(), is(true));
+        assertThat(new WarmUpHealthCheck(warmUp).execute().isHealthy(), is(true));
+    }
+
+    @Test
+    public void zeroIterationsDisablesTheWarmUp() {
+        ValidationWarmUp warmUp = new ValidationWarmUp(validator, new MetadataBuilder(), new JsonCodec(), 0);
+        warmUp.run();
+
+        assertThat(validator.outcomes.isEmpty(), is(true));
+        assertThat(warmUp.isComplete(), is(true));
+    }
+
+    private static class BlockingValidator extends Ds1500JsonValidator {
+        private final CountDownLatch release;
+
+        BlockingValidator(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public DSForm validateAndTranslate(String jsonPayload) throws InvalidJsonException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.validateAndTranslate(jsonPayload);
+        }
+    }
+
+    private static class RecordingValidator extends Ds1500JsonValidator {
+        private final List<String> outcomes = new ArrayList<>();
+
+        @Override
+        public DSForm validateAndTranslate(String jsonPayload) throws InvalidJsonException {
+            try {
+                DSForm form = super.validateAndTranslate(jsonPayload);
+                outcomes.add("accepted");
+                return form;
+
+            } catch (InvalidJsonException e) {
+                outcomes.add(e.getMessage());
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.dwp.health.ds1500controller;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WarmUpReadinessFilterTest {
+    private final ValidationWarmUp warmUp = new ValidationWarmUp(new Ds1500JsonValidator(), new MetadataBuilder(), new JsonCodec(), 0);
+    private final WarmUpReadinessFilter filterUnderTest = new WarmUpReadinessFilter(warmUp);
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private UriInfo uriInfo;
+
+    @Test
+    public void healthCheckIsUnavailableUntilWarmedUp() {
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        when(uriInfo.getPath()).thenReturn("healthcheck");
+
+        filterUnderTest.filter(requestContext);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(requestContext).abortWith(response.capture());
+        assertThat(response.getValue().getStatus(), is(503));
+    }
+
+    @Test
+    public void healthCheckPassesThroughOnceWarmedUp() {
+        warmUp.run();
+
+        filterUnderTest.filter(requestContext);
+
+        verify(requestContext, never()).abortWith(any(Response.class));
+    }
+
+    @Test
+    public void otherPathsAreNotHeldBack() {
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        when(uriInfo.getPath()).thenReturn("controller");
+
+        filterUnderTest.filter(requestContext);
+
+        verify(requestContext, never()).abortWith(any(Response.class));
+    }
+}
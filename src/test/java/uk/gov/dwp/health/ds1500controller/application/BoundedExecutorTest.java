@@ -0,0 +1,78 @@
+package uk.gov.dwp.health.ds1500controller.application;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BoundedExecutorTest {
+    private final List<Runnable> queued = new ArrayList<>();
+    private final Executor deferred = queued::add;
+
+    @Test
+    public void permitIsHeldUntilTheTaskHasRun() {
+        BoundedExecutor executor = new BoundedExecutor(deferred, 2, PublishRejectionPolicy.ABORT);
+        List<String> ran = new ArrayList<>();
+
+        executor.execute(() -> ran.add("first"));
+        assertThat(executor.availablePermits(), is(1));
+
+        queued.get(0).run();
+        assertThat(ran, is(List.of("first")));
+        assertThat(executor.availablePermits(), is(2));
+    }
+
+    @Test
+    public void permitIsReleasedWhenTheTaskFails() {
+        BoundedExecutor executor = new BoundedExecutor(deferred, 1, PublishRejectionPolicy.ABORT);
+        executor.execute(() -> {
+            throw new IllegalStateException("thrown in test");
+        });
+
+        try {
+            queued.get(0).run();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertThat(executor.availablePermits(), is(1));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void abortRejectsOnceTheCapIsReached() {
+        BoundedExecutor executor = new BoundedExecutor(deferred, 1, PublishRejectionPolicy.ABORT);
+        executor.execute(() -> { });
+        executor.execute(() -> { });
+    }
+
+    @Test
+    public void callerRunsRunsOnTheCallingThreadOnceTheCapIsReached() {
+        BoundedExecutor executor = new BoundedExecutor(deferred, 1, PublishRejectionPolicy.CALLER_RUNS);
+        List<Thread> ran = new ArrayList<>();
+
+        executor.execute(() -> { });
+        executor.execute(() -> ran.add(Thread.currentThread()));
+
+        assertThat(ran, is(List.of(Thread.currentThread())));
+        assertThat(queued.size(), is(1));
+        assertThat(executor.availablePermits(), is(0));
+    }
+
+    @Test
+    public void permitIsReturnedWhenTheDelegateRejects() {
+        BoundedExecutor executor = new BoundedExecutor(command -> {
+            throw new RejectedExecutionException("shut down");
+        }, 1, PublishRejectionPolicy.CALLER_RUNS);
+
+        try {
+            executor.execute(() -> { });
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertThat(executor.availablePermits(), is(1));
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.dwp.health.ds1500controller.application;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PublishRejectionPolicyTest {
+
+    @Test
+    public void callerRunsRunsOnTheCallingThreadWhileTheExecutorIsRunning() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = saturated(PublishRejectionPolicy.CALLER_RUNS, release);
+        List<Thread> ran = new ArrayList<>();
+
+        executor.execute(() -> ran.add(Thread.currentThread()));
+
+        assertThat(ran, is(List.of(Thread.currentThread())));
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void callerRunsRejectsOnceTheExecutorIsShutDown() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), PublishRejectionPolicy.CALLER_RUNS.handler());
+        executor.shutdown();
+
+        executor.execute(() -> { });
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void abortRejectsWhenTheExecutorIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = saturated(PublishRejectionPolicy.ABORT, release);
+        try {
+            executor.execute(() -> { });
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static ThreadPoolExecutor saturated(PublishRejectionPolicy policy, CountDownLatch release) throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), policy.handler());
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        executor.execute(() -> { });
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package uk.gov.dwp.health.ds1500controller.benchmark;
+
+final class BenchmarkPayloads {
+    static final String VALID_GP_FORM = "{\n" +
+            "  \"patientName\":\"Fake Michael Man\",\n" +
+            "  \"patientAddress\":\"23 Fake Road\\nFake Park\\nFake\",\n" +
+            "  \"patientPostcode\":\"S2 2RZ\",\n" +
+            "  \"patientDateOfBirth-day\":\"15\",\n" +
+            "  \"patientDateOfBirth-month\":\"02\",\n" +
+            "  \"patientDateOfBirth-year\":\"1972\",\n" +
+            "  \"diagnosis\":\"Extreme grumpiness\",\n" +
+            "  \"dateOfDiagnosis-day\":\"11\",\n" +
+            "  \"dateOfDiagnosis-month\":\"05\",\n" +
+            "  \"dateOfDiagnosis-year\":\"2015\",\n" +
+            "  \"dateOfSpecialRules-day\":\"01\",\n" +
+            "  \"dateOfSpecialRules-month\":\"06\",\n" +
+            "  \"dateOfSpecialRules-year\":\"2015\",\n" +
+            "  \"patientNino\":\"AA370773A\",\n" +
+            "  \"otherDiagnoses\":\"Mild allergies to dub step\",\n" +
+            "  \"diagnosisAware\":\"Yes\",\n" +
+            "  \"patientAware\":\"Yes\",\n" +
+            "  \"clinicalFeatures\":\"Mr Coupe's clinical features\",\n" +
+            "  \"treatment\":\"Beer, loud music, fluffy kittens\",\n" +
+            "  \"declaration\":\"General Practitioner\",\n" +
+            "  \"gmcNumber\":\"1234567\",\n" +
+            "  \"gpName\":\"Dr Hugo Bosh\",\n" +
+            "  \"gpAddress\":\"The Surgery\\nSheffield\",\n" +
+            "  \"gpPostcode\":\"S1 1AA\",\n" +
+            "  \"gpPhone\":\"0114 2588520\"\n" +
+            "}";
+
+    private BenchmarkPayloads() {
+    }
+}
@@ -0,0 +1,53 @@
+package uk.gov.dwp.health.ds1500controller.benchmark;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.ds1500controller.utils.TimeOrderedIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the ids each submission needs, made on 16 threads at once: the random UUID and
+ * {@code RandomStringUtils} claim reference the service used to make, against the time-ordered
+ * generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class IdGeneratorBenchmark {
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Benchmark
+    public UUID randomCorrelationId() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrderedCorrelationId() {
+        return generator.correlationId();
+    }
+
+    @Benchmark
+    public String randomStringClaimRef() {
+        return RandomStringUtils.randomAlphanumeric(30);
+    }
+
+    @Benchmark
+    public String generatedClaimRef() {
+        return generator.claimRef();
+    }
+}
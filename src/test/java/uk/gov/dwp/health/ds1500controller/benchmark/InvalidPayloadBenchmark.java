@@ -0,0 +1,86 @@
+package uk.gov.dwp.health.ds1500controller.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.ds1500controller.Ds1500JsonValidator;
+import uk.gov.dwp.health.ds1500controller.LegacyTreeJsonValidator;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.validation.ValidationPlan;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejected submissions, which are a large share of real traffic, through the original tree
+ * validator and the cost-ordered plan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvalidPayloadBenchmark {
+    private final LegacyTreeJsonValidator legacyValidator = new LegacyTreeJsonValidator();
+    private final Ds1500JsonValidator planValidator = new Ds1500JsonValidator(ValidationPlan.defaultPlan());
+
+    @Param({"missingGpName", "badGmcNumber", "badNino", "badPhone", "malformedTail"})
+    public String failure;
+
+    private String payload;
+
+    @Setup
+    public void buildPayload() {
+        switch (failure) {
+            case "missingGpName":
+                payload = BenchmarkPayloads.VALID_GP_FORM.replace("\"gpName\":\"Dr Hugo Bosh\",", "");
+                break;
+            case "badGmcNumber":
+                payload = BenchmarkPayloads.VALID_GP_FORM.replace("\"1234567\"", "\"0\"");
+                break;
+            case "badNino":
+                payload = BenchmarkPayloads.VALID_GP_FORM.replace("AA370773A", "ZZ370773A");
+                break;
+            case "badPhone":
+                payload = BenchmarkPayloads.VALID_GP_FORM.replace("0114 2588520", "0114 258");
+                break;
+            default:
+                payload = BenchmarkPayloads.VALID_GP_FORM.replace("\"gpName\"", "\"diagnosis\":\" \",\"gpName\"").replace("}", "");
+        }
+    }
+
+    @Benchmark
+    public String legacyTreeValidator() {
+        return rejection(() -> legacyValidator.validateAndTranslate(payload));
+    }
+
+    @Benchmark
+    public String costOrderedPlan() {
+        return rejection(() -> planValidator.validateAndTranslate(payload));
+    }
+
+    private static String rejection(Validation validation) {
+        try {
+            validation.run();
+
+        } catch (InvalidJsonException e) {
+            return e.getMessage();
+
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+        throw new IllegalStateException("payload was accepted");
+    }
+
+    private interface Validation {
+        void run() throws InvalidJsonException;
+    }
+}
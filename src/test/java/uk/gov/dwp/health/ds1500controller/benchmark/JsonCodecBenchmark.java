@@ -0,0 +1,56 @@
+package uk.gov.dwp.health.ds1500controller.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.ds1500controller.Ds1500JsonValidator;
+import uk.gov.dwp.health.ds1500controller.JsonCodec;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.Views;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the fee PDF view of a validated form with a mapper built per request, as the resource
+ * used to do, against the shared {@link JsonCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JsonCodecBenchmark {
+    private final JsonCodec jsonCodec = new JsonCodec();
+    private DSForm form;
+
+    @Setup
+    public void setup() throws InvalidJsonException {
+        form = new Ds1500JsonValidator().validateAndTranslate(BenchmarkPayloads.VALID_GP_FORM);
+    }
+
+    @Benchmark
+    public String viewWriterPerRequest() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
+        return mapper.writerWithView(Views.DsFeeForm.class).writeValueAsString(form);
+    }
+
+    @Benchmark
+    public String sharedViewWriter() throws JsonProcessingException {
+        return jsonCodec.writeWithView(form, Views.DsFeeForm.class);
+    }
+}
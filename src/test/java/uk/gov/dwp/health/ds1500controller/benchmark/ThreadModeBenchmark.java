@@ -0,0 +1,108 @@
+package uk.gov.dwp.health.ds1500controller.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.ds1500controller.Ds1500JsonValidator;
+import uk.gov.dwp.health.ds1500controller.MetadataBuilder;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.utils.VirtualThreads;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A burst of concurrent submissions, each validated and then published to a stand-in for SNS
+ * that blocks for a fixed round trip, run on a fixed pool of platform threads and on one virtual
+ * thread per submission. The synchronized variant holds a monitor across the round trip, as some
+ * client libraries do, which pins virtual threads to their carriers before Java 24. The virtual
+ * case needs a Java 21 or later runtime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+    private static final int SUBMISSIONS = 1000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long PUBLISH_ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Ds1500JsonValidator validator = new Ds1500JsonValidator();
+    private final MetadataBuilder metadataBuilder = new MetadataBuilder();
+    private final Object[] clientLocks = new Object[SUBMISSIONS];
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void createExecutor() {
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            clientLocks[i] = new Object();
+        }
+        executor = "virtual".equals(threads)
+                ? VirtualThreads.newThreadPerTaskExecutor("bench-")
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int unsynchronizedPublish() throws Exception {
+        return submitBurst(false);
+    }
+
+    @Benchmark
+    public int synchronizedPublish() throws Exception {
+        return submitBurst(true);
+    }
+
+    private int submitBurst(boolean holdClientLock) throws Exception {
+        List<Callable<Integer>> submissions = new ArrayList<>(SUBMISSIONS);
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            Object clientLock = clientLocks[i];
+            submissions.add(() -> submit(holdClientLock ? clientLock : null));
+        }
+
+        int published = 0;
+        for (Future<Integer> result : executor.invokeAll(submissions)) {
+            published += result.get();
+        }
+        return published;
+    }
+
+    private int submit(Object clientLock) throws Exception {
+        DSForm form = validator.validateAndTranslate(BenchmarkPayloads.VALID_GP_FORM);
+        metadataBuilder.buildPayload(form, LocalDate.now());
+        if (clientLock == null) {
+            LockSupport.parkNanos(PUBLISH_ROUND_TRIP_NANOS);
+        } else {
+            synchronized (clientLock) {
+                LockSupport.parkNanos(PUBLISH_ROUND_TRIP_NANOS);
+            }
+        }
+        return 1;
+    }
+}
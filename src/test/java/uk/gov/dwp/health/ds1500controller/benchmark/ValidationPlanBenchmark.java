@@ -0,0 +1,51 @@
+package uk.gov.dwp.health.ds1500controller.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.ds1500controller.Ds1500JsonValidator;
+import uk.gov.dwp.health.ds1500controller.LegacyTreeJsonValidator;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.validation.ValidationPlan;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valid GP submission through the original tree validator, through a plan rebuilt for every
+ * request and through the single plan the application shares. Run with {@code -prof gc} to see
+ * bytes/op alongside ns/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ValidationPlanBenchmark {
+    private final LegacyTreeJsonValidator legacyValidator = new LegacyTreeJsonValidator();
+    private final Ds1500JsonValidator sharedPlanValidator = new Ds1500JsonValidator(ValidationPlan.defaultPlan());
+
+    @Benchmark
+    public DSForm legacyTreeValidator() throws InvalidJsonException {
+        return legacyValidator.validateAndTranslate(BenchmarkPayloads.VALID_GP_FORM);
+    }
+
+    @Benchmark
+    public DSForm planBuiltPerRequest() throws InvalidJsonException {
+        return new Ds1500JsonValidator(ValidationPlan.defaultPlan()).validateAndTranslate(BenchmarkPayloads.VALID_GP_FORM);
+    }
+
+    @Benchmark
+    public DSForm sharedPlan() throws InvalidJsonException {
+        return sharedPlanValidator.validateAndTranslate(BenchmarkPayloads.VALID_GP_FORM);
+    }
+}
@@ -0,0 +1,185 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OutboxDrainerTest {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final List<String> deadLettered = new CopyOnWriteArrayList<>();
+    private Path directory;
+    private Outbox outbox;
+    private String failOn;
+    private Exception failure = new IllegalStateException("SNS unavailable");
+
+    @Before
+    public void createOutbox() throws IOException {
+        directory = Files.createTempDirectory("outbox");
+        outbox = new Outbox(directory, 1024 * 1024);
+    }
+
+    @After
+    public void deleteOutbox() throws IOException {
+        outbox.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void entriesArePublishedInBatchesAndAcknowledged() throws IOException {
+        append("id-0", "id-1", "id-2");
+        OutboxDrainer drainer = drainer(2, Duration.ofSeconds(1));
+
+        assertThat(drainer.drainOnce(), is(2));
+        assertThat(drainer.drainOnce(), is(1));
+        assertThat(drainer.drainOnce(), is(0));
+
+        assertThat(published, is(List.of("id-0", "id-1", "id-2")));
+        assertThat(outbox.getBacklog(), is(0L));
+    }
+
+    @Test
+    public void failedEntryIsRetriedWithoutRepublishingEarlierOnes() throws IOException {
+        append("id-0", "id-1", "id-2");
+        failOn = "id-1";
+        OutboxDrainer drainer = drainer(10, Duration.ofSeconds(1));
+
+        assertThat(drainer.drainOnce(), is(1));
+        assertThat(drainer.getPendingCount(), is(2));
+        assertThat(outbox.getBacklog(), is(2L));
+
+        failOn = null;
+        assertThat(drainer.drainOnce(), is(2));
+        assertThat(published, is(List.of("id-0", "id-1", "id-2")));
+        assertThat(outbox.getBacklog(), is(0L));
+    }
+
+    @Test
+    public void entryThatKeepsFailingIsDeadLetteredAndSkipped() throws IOException {
+        append("id-0", "id-1", "id-2");
+        failOn = "id-1";
+        OutboxDrainer drainer = drainer(10, Duration.ofSeconds(1));
+
+        assertThat(drainer.drainOnce(), is(1));
+        assertThat(drainer.drainOnce(), is(0));
+        assertThat(outbox.readDeadLetters().isEmpty(), is(true));
+
+        assertThat(drainer.drainOnce(), is(2));
+        assertThat(published, is(List.of("id-0", "id-2")));
+        assertThat(deadLetters(), is(List.of("id-1")));
+        assertThat(deadLettered, is(List.of("id-1")));
+        assertThat(outbox.getBacklog(), is(0L));
+    }
+
+    @Test
+    public void permanentFailureIsDeadLetteredStraightAway() throws IOException {
+        append("id-0", "id-1");
+        failOn = "id-0";
+        failure = new IOException("cannot be serialised");
+        OutboxDrainer drainer = drainer(10, Duration.ofSeconds(1));
+
+        assertThat(drainer.drainOnce(), is(2));
+        assertThat(published, is(List.of("id-1")));
+        assertThat(deadLetters(), is(List.of("id-0")));
+    }
+
+    @Test
+    public void heldBackAttemptsAreNotCounted() throws IOException {
+        append("id-0");
+        failOn = "id-0";
+        failure = new PublishHeldBackException("circuit open");
+        OutboxDrainer drainer = drainer(10, Duration.ofSeconds(1));
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertThat(drainer.drainOnce(), is(0));
+        }
+        failOn = null;
+        assertThat(drainer.drainOnce(), is(1));
+        assertThat(published, is(List.of("id-0")));
+        assertThat(deadLetters(), is(List.of()));
+    }
+
+    @Test
+    public void successResetsTheAttemptCount() throws IOException {
+        append("id-0", "id-1");
+        OutboxDrainer drainer = drainer(10, Duration.ofSeconds(1));
+        failOn = "id-0";
+        drainer.drainOnce();
+        drainer.drainOnce();
+        failOn = "id-1";
+
+        assertThat(drainer.drainOnce(), is(1));
+        assertThat(drainer.drainOnce(), is(0));
+        assertThat(published, is(List.of("id-0")));
+        assertThat(deadLetters(), is(List.of()));
+    }
+
+    @Test
+    public void drainerResumesFromTheAcknowledgedEntryAfterARestart() throws IOException {
+        append("id-0", "id-1");
+        drainer(1, Duration.ofSeconds(1)).drainOnce();
+        outbox.close();
+
+        outbox = new Outbox(directory, 1024 * 1024);
+        drainer(10, Duration.ofSeconds(1)).drainOnce();
+
+        assertThat(published, is(List.of("id-0", "id-1")));
+    }
+
+    @Test
+    public void backgroundThreadPublishesNewEntriesPromptly() throws Exception {
+        OutboxDrainer drainer = drainer(10, Duration.ofMinutes(1));
+        drainer.start();
+        try {
+            append("id-0");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (published.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            drainer.stop();
+        }
+
+        assertThat(published, is(List.of("id-0")));
+    }
+
+    private OutboxDrainer drainer(int batchSize, Duration retryInterval) {
+        return new OutboxDrainer(outbox, this::publish, batchSize, retryInterval, MAX_ATTEMPTS, e -> e instanceof IOException, entry -> deadLettered.add(entry.getCorrelationId()));
+    }
+
+    private List<String> deadLetters() throws IOException {
+        return outbox.readDeadLetters().stream().map(OutboxEntry::getCorrelationId).collect(Collectors.toList());
+    }
+
+    private void append(String... correlationIds) throws IOException {
+        for (String correlationId : correlationIds) {
+            outbox.append(new OutboxEntry(correlationId, "{}"));
+        }
+    }
+
+    private void publish(OutboxEntry entry) throws Exception {
+        if (entry.getCorrelationId().equals(failOn)) {
+            throw failure;
+        }
+        published.add(entry.getCorrelationId());
+    }
+}
@@ -0,0 +1,364 @@
+package uk.gov.dwp.health.ds1500controller.outbox;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class OutboxTest {
+    private static final String PAYLOAD = "{\"payload\":{\"surname\":\"Fake £\"},\"metadata\":{}}";
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("outbox");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void appendedEntriesAreReadBackInOrder() throws IOException {
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        outbox.append(new OutboxEntry("id-1", PAYLOAD));
+        outbox.append(new OutboxEntry("id-2", "{}"));
+
+        List<OutboxEntry> entries = outbox.read(outbox.getAcknowledged(), 10);
+
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0).getCorrelationId(), is("id-1"));
+        assertThat(entries.get(0).getDrsPayloadJson(), is(PAYLOAD));
+        assertThat(entries.get(1).getCorrelationId(), is("id-2"));
+        assertThat(outbox.read(entries.get(1).getEnd(), 10).isEmpty(), is(true));
+        assertThat(outbox.read(outbox.getAcknowledged(), 1).size(), is(1));
+        outbox.close();
+    }
+
+    @Test
+    public void appendAllWritesEveryEntryWithOneSync() throws IOException {
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        outbox.appendAll(Arrays.asList(
+                new OutboxEntry("id-0", PAYLOAD), new OutboxEntry("id-1", PAYLOAD), new OutboxEntry("id-2", PAYLOAD)));
+
+        assertThat(correlationIds(outbox.read(outbox.getAcknowledged(), 10)), is(Arrays.asList("id-0", "id-1", "id-2")));
+        assertThat(outbox.getBacklog(), is(3L));
+        assertThat(outbox.getSyncCount(), is(1L));
+        outbox.close();
+    }
+
+    @Test
+    public void segmentsRotateAndAcknowledgedSegmentsAreDeleted() throws IOException {
+        Outbox outbox = new Outbox(directory, 64);
+        for (int i = 0; i < 6; i++) {
+            outbox.append(new OutboxEntry("id-" + i, PAYLOAD));
+        }
+        assertThat(segmentCount(), is(6L));
+
+        List<OutboxEntry> entries = outbox.read(outbox.getAcknowledged(), 10);
+        assertThat(entries.size(), is(6));
+        outbox.acknowledge(entries.subList(0, 4));
+
+        assertThat(segmentCount(), is(3L));
+        assertThat(outbox.getBacklog(), is(2L));
+        List<OutboxEntry> remaining = outbox.read(outbox.getAcknowledged(), 10);
+        assertThat(remaining.get(0).getCorrelationId(), is("id-4"));
+        assertThat(remaining.get(1).getCorrelationId(), is("id-5"));
+        outbox.close();
+    }
+
+    @Test
+    public void restartResumesFromTheAcknowledgedEntry() throws IOException {
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        for (int i = 0; i < 3; i++) {
+            outbox.append(new OutboxEntry("id-" + i, PAYLOAD));
+        }
+        outbox.acknowledge(outbox.read(outbox.getAcknowledged(), 1));
+        outbox.close();
+
+        Outbox reopened = new Outbox(directory, 1024 * 1024);
+        reopened.append(new OutboxEntry("id-3", PAYLOAD));
+
+        assertThat(reopened.getBacklog(), is(3L));
+        assertThat(correlationIds(reopened.read(reopened.getAcknowledged(), 10)), is(List.of("id-1", "id-2", "id-3")));
+        reopened.close();
+    }
+
+    @Test
+    public void tornRecordEndsItsSegmentAfterARestart() throws IOException {
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        outbox.append(new OutboxEntry("id-0", PAYLOAD));
+        outbox.append(new OutboxEntry("id-1", PAYLOAD));
+        outbox.close();
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        Outbox reopened = new Outbox(directory, 1024 * 1024);
+        reopened.append(new OutboxEntry("id-2", PAYLOAD));
+
+        assertThat(reopened.getBacklog(), is(2L));
+        assertThat(correlationIds(reopened.read(reopened.getAcknowledged(), 10)), is(List.of("id-0", "id-2")));
+        reopened.close();
+    }
+
+    @Test
+    public void failedWriteIsCutOutBeforeTheNextAppend() throws IOException {
+        List<FaultyChannel> segments = new ArrayList<>();
+        Outbox outbox = new Outbox(directory, 1024 * 1024, file -> faulty(file, segments));
+        outbox.append(new OutboxEntry("id-0", PAYLOAD));
+        segments.get(0).failNextWrite = true;
+
+        assertAppendFails(outbox, new OutboxEntry("id-1", PAYLOAD));
+        outbox.append(new OutboxEntry("id-2", PAYLOAD));
+
+        assertThat(correlationIds(outbox.read(outbox.getAcknowledged(), 10)), is(List.of("id-0", "id-2")));
+        assertThat(outbox.getBacklog(), is(2L));
+        outbox.close();
+    }
+
+    @Test
+    public void failedBatchLeavesNoneOfItsEntries() throws IOException {
+        List<FaultyChannel> segments = new ArrayList<>();
+        Outbox outbox = new Outbox(directory, 1024 * 1024, file -> faulty(file, segments));
+        segments.get(0).failNextWrite = true;
+
+        try {
+            outbox.appendAll(Arrays.asList(new OutboxEntry("id-0", PAYLOAD), new OutboxEntry("id-1", PAYLOAD)));
+            fail("append should have failed");
+        } catch (IOException e) {
+            // expected
+        }
+        outbox.append(new OutboxEntry("id-2", PAYLOAD));
+
+        assertThat(correlationIds(outbox.read(outbox.getAcknowledged(), 10)), is(List.of("id-2")));
+        assertThat(outbox.getBacklog(), is(1L));
+        outbox.close();
+    }
+
+    @Test
+    public void failedSyncDiscardsWhatItCouldNotSync() throws IOException {
+        List<FaultyChannel> segments = new ArrayList<>();
+        Outbox outbox = new Outbox(directory, 1024 * 1024, file -> faulty(file, segments));
+        outbox.append(new OutboxEntry("id-0", PAYLOAD));
+        segments.get(0).failNextForce = true;
+
+        assertAppendFails(outbox, new OutboxEntry("id-1", PAYLOAD));
+        outbox.append(new OutboxEntry("id-2", PAYLOAD));
+        outbox.close();
+
+        assertThat(segments.size(), is(2));
+        assertThat(correlationIds(outbox.read(outbox.getAcknowledged(), 10)), is(List.of("id-0", "id-2")));
+        assertThat(outbox.getBacklog(), is(2L));
+        Outbox reopened = new Outbox(directory, 1024 * 1024);
+        assertThat(correlationIds(reopened.read(reopened.getAcknowledged(), 10)), is(List.of("id-0", "id-2")));
+        reopened.close();
+    }
+
+    @Test
+    public void concurrentAppendersShareSyncs() throws Exception {
+        Outbox outbox = new Outbox(directory, 16 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> appends = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String id = "id-" + i;
+            appends.add(executor.submit(() -> {
+                outbox.append(new OutboxEntry(id, PAYLOAD));
+                return null;
+            }));
+        }
+        for (Future<?> append : appends) {
+            append.get();
+        }
+        executor.shutdown();
+
+        assertThat(outbox.getBacklog(), is(400L));
+        assertThat(outbox.read(outbox.getAcknowledged(), 1000).size(), is(400));
+        assertThat(outbox.getSyncCount() <= 400, is(true));
+        outbox.close();
+    }
+
+    @Test
+    public void metricsAreRegistered() throws IOException {
+        Outbox outbox = new Outbox(directory, 1024 * 1024);
+        MetricRegistry metrics = new MetricRegistry();
+        outbox.registerMetrics(metrics);
+        outbox.append(new OutboxEntry("id-0", PAYLOAD));
+        outbox.acknowledge(outbox.read(outbox.getAcknowledged(), 10));
+
+        assertThat(metrics.getGauges().get(MetricRegistry.name(Outbox.class, "backlog")).getValue(), is(0L));
+        assertThat(metrics.meter(MetricRegistry.name(Outbox.class, "appended")).getCount(), is(1L));
+        assertThat(metrics.meter(MetricRegistry.name(Outbox.class, "drained")).getCount(), is(1L));
+        assertThat(metrics.meter(MetricRegistry.name(Outbox.class, "syncs")).getCount(), is(1L));
+        outbox.close();
+    }
+
+    private static FaultyChannel faulty(Path file, List<FaultyChannel> segments) throws IOException {
+        FaultyChannel channel = new FaultyChannel(FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        segments.add(channel);
+        return channel;
+    }
+
+    private static void assertAppendFails(Outbox outbox, OutboxEntry entry) {
+        try {
+            outbox.append(entry);
+            fail("append should have failed");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+
+    private static List<String> correlationIds(List<OutboxEntry> entries) {
+        return entries.stream().map(OutboxEntry::getCorrelationId).collect(Collectors.toList());
+    }
+
+    /** Writes half a buffer and then fails, or fails a force, when asked to. */
+    private static class FaultyChannel extends FileChannel {
+        private final FileChannel delegate;
+        private boolean failNextWrite;
+        private boolean failNextForce;
+
+        FaultyChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                src.position(half.limit());
+                delegate.write(half);
+                throw new IOException("disk full");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failNextForce) {
+                failNextForce = false;
+                throw new IOException("fsync failed");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
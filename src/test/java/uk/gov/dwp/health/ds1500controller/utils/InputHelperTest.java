@@ -1,5 +1,6 @@
 package uk.gov.dwp.health.ds1500controller.utils;
 
+import org.apache.commons.text.StringEscapeUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -8,9 +9,12 @@ import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidCharactersExc
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -42,4 +46,69 @@ public class InputHelperTest {
         helperUnderTest.cleanInput("abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyz");
         fail(ERROR_MSG);
     }
+
+    @Test
+    public void inputWithNothingToEscapeIsReturnedAsTheSameInstance() throws InvalidCharactersException {
+        String plainInput = "Mr Coupe's clinical features, (mostly) fine - 100% {ok}\n\tsecond line";
+        assertThat(helperUnderTest.cleanInput(plainInput), is(sameInstance(plainInput)));
+    }
+
+    @Test
+    public void emptyAndMissingInputArePassedThrough() throws InvalidCharactersException {
+        assertThat(helperUnderTest.cleanInput(null), is(nullValue()));
+        assertThat(helperUnderTest.cleanInput(""), is(""));
+    }
+
+    @Test
+    public void wordsAreSplitOnEveryRegexWhitespaceCharacter() throws InvalidCharactersException {
+        String word = "abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyzabcdef";
+        for (char separator : new char[]{' ', '\t', '\n', '\u000B', '\f', '\r'}) {
+            String input = word + separator + word;
+            assertThat(helperUnderTest.cleanInput(input), is(sameInstance(input)));
+        }
+    }
+
+    @Test(expected = InvalidCharactersException.class)
+    public void nonBreakingSpaceDoesNotEndAWord() throws InvalidCharactersException {
+        helperUnderTest.cleanInput("abcdefghijklmnopqrstuvwxyz\u00A0abcdefghijklmnopqrstuvwxyzabcdefghij");
+    }
+
+    @Test
+    public void escapingMatchesEscapeHtml4ForEveryBmpCharacter() throws InvalidCharactersException {
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            String input = "a" + c + "b";
+            assertThat("character " + (int) c, helperUnderTest.cleanInput(input), is(equalTo(referenceClean(input))));
+        }
+    }
+
+    @Test
+    public void randomInputMatchesTheSplitAndEscapeImplementation() {
+        Random random = new Random(1500);
+        String alphabet = "aZ9 \t\n\r\u000B\f&<>\"'£é€’—\u00A0";
+        for (int run = 0; run < 20000; run++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                input.append(random.nextInt(4) == 0 ? alphabet.charAt(random.nextInt(alphabet.length())) : 'x');
+            }
+            assertThat(input.toString(), clean(input.toString()), is(equalTo(referenceClean(input.toString()))));
+        }
+    }
+
+    private String clean(String input) {
+        try {
+            return helperUnderTest.cleanInput(input);
+        } catch (InvalidCharactersException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String referenceClean(String input) {
+        for (String word : input.split("\\s+")) {
+            if (word.length() > 58) {
+                return String.format("Provided Input (%s) fails character content validation checks", input);
+            }
+        }
+        return StringEscapeUtils.escapeHtml4(input);
+    }
 }
@@ -0,0 +1,85 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class PackedDateTest {
+
+    @Test
+    public void datesArePackedAsYearMonthDay() {
+        assertThat(PackedDate.of(1972, 2, 15), is(19720215));
+        assertThat(PackedDate.of(LocalDate.of(2015, 12, 1)), is(20151201));
+        assertThat(PackedDate.year(19720215), is(1972));
+    }
+
+    @Test
+    public void todayComesFromTheClock() {
+        assertThat(PackedDate.today(Clock.fixed(Instant.parse("2020-02-29T23:59:59Z"), ZoneOffset.UTC)), is(20200229));
+    }
+
+    @Test
+    public void datesThatDoNotExistAreInvalid() {
+        assertThat(PackedDate.of(2019, 2, 29), is(PackedDate.INVALID));
+        assertThat(PackedDate.of(1900, 2, 29), is(PackedDate.INVALID));
+        assertThat(PackedDate.of(2000, 2, 29), is(20000229));
+        assertThat(PackedDate.of(2020, 4, 31), is(PackedDate.INVALID));
+        assertThat(PackedDate.of(2020, 13, 1), is(PackedDate.INVALID));
+        assertThat(PackedDate.of(2020, 0, 1), is(PackedDate.INVALID));
+        assertThat(PackedDate.of(2020, 1, 0), is(PackedDate.INVALID));
+        assertThat(PackedDate.of(10000, 1, 1), is(PackedDate.INVALID));
+    }
+
+    @Test
+    public void formPartsMustBeDigitsWithAFourDigitYear() {
+        assertThat(PackedDate.parse("1", "7", "1993"), is(19930701));
+        assertThat(PackedDate.parse("06", "07", "1993"), is(19930706));
+        assertThat(PackedDate.parse("6", "07", "0072"), is(720706));
+        assertThat(PackedDate.parse("6", "07", "72"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse(" 6", "07", "1993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("+6", "07", "1993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("6", "", "1993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("6", "07", "1993x"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("6", "0000000007", "1993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse(null, "07", "1993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("6", "07", null), is(PackedDate.INVALID));
+    }
+
+    @Test
+    public void formDateStringsAreSplitOnSlashes() {
+        assertThat(PackedDate.parse("6/07/1993"), is(19930706));
+        assertThat(PackedDate.parse("16/17/1992"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("6-07-1993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse("6/071993"), is(PackedDate.INVALID));
+        assertThat(PackedDate.parse(null), is(PackedDate.INVALID));
+    }
+
+    @Test
+    public void packedOrderingMatchesCalendarOrdering() {
+        LocalDate start = LocalDate.of(1995, 12, 25);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate date = start.plusDays(i);
+            assertThat(date.toString(), PackedDate.of(date) < PackedDate.of(date.plusDays(1)), is(true));
+        }
+    }
+
+    @Test
+    public void yearsBetweenMatchesPeriodBetween() {
+        LocalDate submission = LocalDate.of(2016, 2, 29);
+        LocalDate birth = LocalDate.of(1940, 1, 1);
+        while (birth.isBefore(LocalDate.of(2017, 1, 1))) {
+            for (LocalDate to : new LocalDate[]{submission, submission.minusDays(1), submission.plusDays(1), LocalDate.of(2016, 7, 25)}) {
+                assertThat(birth + " to " + to, PackedDate.yearsBetween(PackedDate.of(birth), PackedDate.of(to)), is(Period.between(birth, to).getYears()));
+            }
+            birth = birth.plusDays(1);
+        }
+    }
+}
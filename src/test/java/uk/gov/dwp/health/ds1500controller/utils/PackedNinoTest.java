@@ -0,0 +1,128 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import org.junit.Test;
+import uk.gov.dwp.regex.InvalidNinoException;
+import uk.gov.dwp.regex.NinoValidator;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class PackedNinoTest {
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Test
+    public void bodyAndSuffixComeBackInUpperCase() {
+        long nino = PackedNino.parse("aa370773a");
+
+        assertThat(nino, is(not(PackedNino.INVALID)));
+        assertThat(PackedNino.body(nino), is("AA370773"));
+        assertThat(PackedNino.suffix(nino), is("A"));
+    }
+
+    @Test
+    public void suffixIsOptional() {
+        long nino = PackedNino.parse("ZY000001");
+
+        assertThat(PackedNino.body(nino), is("ZY000001"));
+        assertThat(PackedNino.suffix(nino), is(""));
+    }
+
+    @Test
+    public void lowestPossibleNinoIsStillValid() {
+        long nino = PackedNino.parse("AA000000");
+
+        assertThat(nino, is(not(PackedNino.INVALID)));
+        assertThat(PackedNino.body(nino), is("AA000000"));
+    }
+
+    @Test
+    public void spacesAreIgnored() {
+        long nino = PackedNino.parse(" AA 37 07 73 D ");
+
+        assertThat(PackedNino.body(nino), is("AA370773"));
+        assertThat(PackedNino.suffix(nino), is("D"));
+    }
+
+    @Test
+    public void malformedNinosAreInvalid() {
+        String[] invalid = {null, "", "AA", "AA37077", "AA370773AA", "AA370773E", "AA3707731", "A1370773A",
+            "AA37O773A", "DA370773A", "AO370773A", "GB370773A", "ZZ370773A", "AA\t370773A", "ÄA370773A"};
+        for (String nino : invalid) {
+            assertThat(String.valueOf(nino), PackedNino.parse(nino), is(PackedNino.INVALID));
+        }
+    }
+
+    @Test
+    public void everyPrefixAndSuffixMatchesTheNinoValidator() throws InvalidNinoException {
+        for (char first : LETTERS.toCharArray()) {
+            for (char second : LETTERS.toCharArray()) {
+                for (String suffix : new String[]{"", "A", "B", "C", "D", "E", "Z"}) {
+                    assertMatchesNinoValidator("" + first + second + "370773" + suffix);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void spacedLowerCaseAndPaddedInputMatchesTheNinoValidator() throws InvalidNinoException {
+        String[] ninos = {"AA 37 07 73 A", "AA370773 A", "AA 370773A", " AA370773A", "AA370773A ", "  AA370773  ", "AA  370773A",
+            "aa370773a", "Aa370773A", "aA370773d", "aa 37 07 73 a", " aa370773 ", "AA370773a", "ab 12 34 56 c",
+            "\tAA370773A", "AA370773A\n", "AA\u00a0370773A", "gb370773a", "zz 37 07 73", "aa370773e", " ", "A A370773A"};
+        for (String nino : ninos) {
+            assertMatchesNinoValidator(nino);
+        }
+    }
+
+    @Test
+    public void randomSpacedAndMixedCaseInputMatchesTheNinoValidator() throws InvalidNinoException {
+        Random random = new Random(1501);
+        for (int run = 0; run < 100000; run++) {
+            StringBuilder nino = new StringBuilder();
+            int length = 6 + random.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                if (random.nextInt(6) == 0) {
+                    nino.append(' ');
+                }
+                boolean letterPosition = i < 2 || i >= 8;
+                boolean letter = letterPosition == (random.nextInt(8) != 0);
+                char c = letter ? LETTERS.charAt(random.nextInt(LETTERS.length())) : (char) ('0' + random.nextInt(10));
+                nino.append(random.nextBoolean() ? Character.toLowerCase(c) : c);
+            }
+            assertMatchesNinoValidator(random.nextInt(4) == 0 ? " " + nino + " " : nino.toString());
+        }
+    }
+
+    @Test
+    public void randomInputMatchesTheNinoValidator() throws InvalidNinoException {
+        Random random = new Random(1500);
+        for (int run = 0; run < 100000; run++) {
+            StringBuilder nino = new StringBuilder();
+            int length = 6 + random.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                boolean letterPosition = i < 2 || i >= 8;
+                boolean letter = letterPosition == (random.nextInt(8) != 0);
+                nino.append(letter ? LETTERS.charAt(random.nextInt(LETTERS.length())) : (char) ('0' + random.nextInt(10)));
+            }
+            assertMatchesNinoValidator(nino.toString());
+        }
+    }
+
+    private static void assertMatchesNinoValidator(String nino) throws InvalidNinoException {
+        boolean expected = NinoValidator.validateNINO(nino);
+        long packed = PackedNino.parse(nino);
+
+        assertThat(nino, packed != PackedNino.INVALID, is(expected));
+        if (expected) {
+            NinoValidator reference = new NinoValidator(nino.toUpperCase(Locale.ROOT));
+            assertThat(nino, PackedNino.body(packed), is(reference.getNinoBody()));
+            if (nino.replaceAll("\\s", "").length() == 9) {
+                assertThat(nino, PackedNino.suffix(packed), is(reference.getNinoSuffix()));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TimeOrderedIdGeneratorTest {
+    private static final long NOW_MILLIS = 1_760_000_000_123L;
+
+    private final TimeOrderedIdGenerator generatorUnderTest =
+            new TimeOrderedIdGenerator(Clock.fixed(Instant.ofEpochMilli(NOW_MILLIS), ZoneOffset.UTC));
+
+    @Test
+    public void correlationIdIsAVersion7UuidCarryingTheTime() {
+        UUID id = generatorUnderTest.correlationId();
+
+        assertThat(id.version(), is(7));
+        assertThat(id.variant(), is(2));
+        assertThat(id.getMostSignificantBits() >>> 16, is(NOW_MILLIS));
+        assertThat(UUID.fromString(id.toString()), is(id));
+    }
+
+    @Test
+    public void correlationIdsSortByTheMillisecondTheyWereMadeIn() {
+        UUID earlier = new TimeOrderedIdGenerator(Clock.fixed(Instant.ofEpochMilli(NOW_MILLIS), ZoneOffset.UTC)).correlationId();
+        UUID later = new TimeOrderedIdGenerator(Clock.fixed(Instant.ofEpochMilli(NOW_MILLIS + 1), ZoneOffset.UTC)).correlationId();
+
+        assertThat(earlier.toString().compareTo(later.toString()) < 0, is(true));
+    }
+
+    @Test
+    public void correlationIdsInTheSameMillisecondAreDistinct() {
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(generatorUnderTest.correlationId());
+        }
+
+        assertThat(ids.size(), is(100_000));
+    }
+
+    @Test
+    public void claimRefIsThirtyAlphanumerics() {
+        for (int i = 0; i < 1000; i++) {
+            String claimRef = generatorUnderTest.claimRef();
+
+            assertThat(claimRef.length(), is(30));
+            assertThat(claimRef.matches("[A-Za-z0-9]{30}"), is(true));
+        }
+    }
+
+    @Test
+    public void claimRefsUseTheWholeAlphabet() {
+        Set<Character> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            for (char c : generatorUnderTest.claimRef().toCharArray()) {
+                seen.add(c);
+            }
+        }
+
+        assertThat(seen.size(), is(62));
+    }
+
+    @Test
+    public void idsMadeOnManyThreadsAreDistinct() throws Exception {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        Set<String> claimRefs = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.correlationId());
+                    claimRefs.add(generator.claimRef());
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        assertThat(ids.size(), is(80_000));
+        assertThat(claimRefs.size(), is(80_000));
+    }
+}
@@ -0,0 +1,101 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import org.junit.Test;
+import uk.gov.dwp.regex.PostCodeValidator;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class UkPostcodeTest {
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String CHARACTERS = LETTERS + "0123456789";
+
+    @Test
+    public void everyOutwardCodeFormatIsAccepted() {
+        String[] valid = {"M1 1AA", "M60 1NW", "CR2 6XH", "DN55 1PT", "W1A 1HQ", "EC1A 1BB", "S2 2RZ", "LS1 1AR", "IN3 2JJ", "GIR 0AA"};
+        for (String postcode : valid) {
+            assertThat(postcode, UkPostcode.isValid(postcode), is(true));
+            assertThat(postcode, UkPostcode.isValid(postcode.replace(" ", "")), is(true));
+            assertThat(postcode, UkPostcode.isValid(postcode.toLowerCase()), is(true));
+        }
+    }
+
+    @Test
+    public void surroundingWhitespaceIsIgnored() {
+        assertThat(UkPostcode.isValid(" \tS2 2RZ\n"), is(true));
+    }
+
+    @Test
+    public void malformedPostcodesAreRejected() {
+        String[] invalid = {null, "", "123456789", "S2", "S2  2RZ", "S 2RZ", "Q1 1AA", "S2 2RC", "S2 RZ2", "EC1AA 1BB", "GIR 0AB", "S2 2RÉ"};
+        for (String postcode : invalid) {
+            assertThat(String.valueOf(postcode), UkPostcode.isValid(postcode), is(false));
+        }
+    }
+
+    @Test
+    public void everyTwoLetterOutwardCodeMatchesThePostCodeValidator() {
+        for (char first : CHARACTERS.toCharArray()) {
+            for (char second : CHARACTERS.toCharArray()) {
+                for (char third : CHARACTERS.toCharArray()) {
+                    assertMatchesPostCodeValidator("" + first + second + third + " 1AB");
+                    assertMatchesPostCodeValidator("" + first + second + "1" + third + " 1AB");
+                }
+                assertMatchesPostCodeValidator("" + first + second + " 1AB");
+                assertMatchesPostCodeValidator("S2 " + first + second + "B");
+                assertMatchesPostCodeValidator("S2 1" + first + second);
+            }
+        }
+    }
+
+    @Test
+    public void spacedLowerCaseAndPaddedInputMatchesThePostCodeValidator() {
+        String[] postcodes = {" S2 2RZ", "S2 2RZ ", "  S22RZ  ", "\tS2 2RZ\n", "s2 2rz", "S2 2rz", "ec1a 1bb", " ec1a1bb ",
+            "gir 0aa", "Gir 0Aa", " GIR0AA ", "S2  2RZ", "S 2 2RZ", "S2 2 RZ", "S2\t2RZ", "S2\u00a02RZ", "\u00a0S2 2RZ",
+            " ", "  s2  ", "dn55 1pt ", " w1a 1hq"};
+        for (String postcode : postcodes) {
+            assertMatchesPostCodeValidator(postcode);
+        }
+    }
+
+    @Test
+    public void randomPaddedInputMatchesThePostCodeValidator() {
+        String[] padding = {"", " ", "  ", "\t", "\n", " \t"};
+        Random random = new Random(1501);
+        for (int run = 0; run < 100000; run++) {
+            String outward = "" + LETTERS.charAt(random.nextInt(LETTERS.length())) + CHARACTERS.charAt(random.nextInt(CHARACTERS.length()))
+                + (random.nextBoolean() ? "" : CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+            String inward = "" + (char) ('0' + random.nextInt(10)) + LETTERS.charAt(random.nextInt(LETTERS.length())) + LETTERS.charAt(random.nextInt(LETTERS.length()));
+            String postcode = padding[random.nextInt(padding.length)] + outward + (random.nextInt(3) == 0 ? "" : " ") + inward
+                + padding[random.nextInt(padding.length)];
+            assertMatchesPostCodeValidator(random.nextBoolean() ? postcode : postcode.toLowerCase());
+        }
+    }
+
+    @Test
+    public void randomInputMatchesThePostCodeValidator() {
+        Random random = new Random(1500);
+        for (int run = 0; run < 100000; run++) {
+            StringBuilder postcode = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                int pick = random.nextInt(20);
+                if (pick == 0) {
+                    postcode.append(' ');
+                } else if (pick < 10) {
+                    postcode.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+                } else {
+                    postcode.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            assertMatchesPostCodeValidator(random.nextBoolean() ? postcode.toString() : postcode.toString().toLowerCase());
+        }
+    }
+
+    private static void assertMatchesPostCodeValidator(String postcode) {
+        assertThat(postcode, UkPostcode.isValid(postcode), is(PostCodeValidator.validateInput(postcode)));
+    }
+}
@@ -0,0 +1,45 @@
+package uk.gov.dwp.health.ds1500controller.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void supportFollowsTheRuntimeVersion() {
+        assertThat(VirtualThreads.isSupported(), is(Runtime.version().feature() >= 21));
+    }
+
+    @Test
+    public void executorRunsEachTaskOnANamedVirtualThread() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertThat(thread.getName(), startsWith("test-"));
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void olderRuntimesAreToldWhichVersionIsNeeded() {
+        assumeTrue(!VirtualThreads.isSupported());
+        try {
+            VirtualThreads.newThreadPerTaskExecutor("test-");
+            fail("virtual threads should not be available");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), startsWith("Virtual threads need Java 21 or later"));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class DateRuleTest {
+    private static final Clock TODAY = Clock.fixed(Instant.parse("2020-06-15T10:00:00Z"), ZoneOffset.UTC);
+
+    private final StreamingFormReader formReader = new StreamingFormReader(new InputHelper());
+
+    private final DateRule dateOfBirth = new DateRule(Ds1500Date.DATE_OF_BIRTH, (form, formDate, packedDate) -> {
+        form.setDateOfBirth(formDate);
+        form.setPackedDateOfBirth(packedDate);
+    }, TODAY);
+
+    private final DateRule diagnosisDate = new DateRule(
+            Ds1500Date.DIAGNOSIS,
+            (form, formDate, packedDate) -> form.setDiagnosisDate(formDate),
+            TODAY,
+            Ds1500Date.DATE_OF_BIRTH,
+            "diagnosis before birth");
+
+    @Test
+    public void formDateIsCopiedAsEntered() throws InvalidJsonException {
+        DSForm form = new DSForm();
+        dateOfBirth.apply(fields("01", "2", "1970", "1", "1", "2000"), form);
+
+        assertThat(form.getDateOfBirth(), is("01/2/1970"));
+        assertThat(form.getPackedDateOfBirth(), is(19700201));
+    }
+
+    @Test
+    public void todayIsNotInTheFuture() throws InvalidJsonException {
+        DSForm form = new DSForm();
+        dateOfBirth.apply(fields("15", "06", "2020", "1", "1", "2000"), form);
+
+        assertThat(form.getDateOfBirth(), is("15/06/2020"));
+    }
+
+    @Test
+    public void tomorrowIsInTheFuture() {
+        expectRejection(dateOfBirth, fields("16", "06", "2020", "1", "1", "2000"), "Date is in the future");
+    }
+
+    @Test
+    public void yearBefore1890IsInvalid() {
+        expectRejection(dateOfBirth, fields("31", "12", "1889", "1", "1", "2000"), "Date is invalid");
+    }
+
+    @Test
+    public void dayThatDoesNotExistIsRejected() {
+        expectRejection(dateOfBirth, fields("29", "02", "2019", "1", "1", "2000"), "Date is invalid");
+    }
+
+    @Test
+    public void twoDigitYearIsRejected() {
+        expectRejection(dateOfBirth, fields("01", "01", "72", "1", "1", "2000"), "Date is invalid");
+    }
+
+    @Test
+    public void paddedOrSignedPartsAreRejected() {
+        expectRejection(dateOfBirth, fields(" 1", "01", "1972", "1", "1", "2000"), "Date is invalid");
+        expectRejection(dateOfBirth, fields("+1", "01", "1972", "1", "1", "2000"), "Date is invalid");
+        expectRejection(dateOfBirth, fields("1", "01", "1972x", "1", "1", "2000"), "Date is invalid");
+    }
+
+    @Test
+    public void dateOnTheSameDayAsItsPredecessorIsAccepted() throws InvalidJsonException {
+        DSForm form = new DSForm();
+        diagnosisDate.apply(fields("1", "1", "2000", "01", "01", "2000"), form);
+
+        assertThat(form.getDiagnosisDate(), is("01/01/2000"));
+    }
+
+    @Test
+    public void dateBeforeItsPredecessorIsRejected() {
+        DSForm form = new DSForm();
+        try {
+            diagnosisDate.apply(fields("2", "1", "2000", "01", "01", "2000"), form);
+            fail("diagnosis before birth should be rejected");
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getMessage(), is("diagnosis before birth"));
+            assertThat(form.getDiagnosisDate(), is(nullValue()));
+        }
+    }
+
+    private FormFields fields(String dobDay, String dobMonth, String dobYear, String dayOfDiagnosis, String monthOfDiagnosis, String yearOfDiagnosis) {
+        try {
+            return formReader.read(String.format("{\"patientDateOfBirth-day\":\"%s\",\"patientDateOfBirth-month\":\"%s\",\"patientDateOfBirth-year\":\"%s\","
+                            + "\"dateOfDiagnosis-day\":\"%s\",\"dateOfDiagnosis-month\":\"%s\",\"dateOfDiagnosis-year\":\"%s\"}",
+                    dobDay, dobMonth, dobYear, dayOfDiagnosis, monthOfDiagnosis, yearOfDiagnosis));
+
+        } catch (InvalidJsonException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void expectRejection(DateRule rule, FormFields fields, String message) {
+        try {
+            rule.apply(fields, new DSForm());
+            fail("date should be rejected");
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getMessage(), containsString(message));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidCharactersException;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class FormFieldsTest {
+    private static final String GP_FORM = "{" +
+            "\"patientName\":\"Fake Michael Man\"," +
+            "\"patientAddress\":\"23 Fake Road\\nFake Park\\nFake\"," +
+            "\"patientPostcode\":\"S2 2RZ\"," +
+            "\"patientDateOfBirth-day\":\"15\"," +
+            "\"patientDateOfBirth-month\":\"02\"," +
+            "\"patientDateOfBirth-year\":\"1972\"," +
+            "\"diagnosis\":\"Extreme grumpiness\"," +
+            "\"dateOfDiagnosis-day\":\"11\"," +
+            "\"dateOfDiagnosis-month\":\"05\"," +
+            "\"dateOfDiagnosis-year\":\"2015\"," +
+            "\"dateOfSpecialRules-day\":\"01\"," +
+            "\"dateOfSpecialRules-month\":\"06\"," +
+            "\"dateOfSpecialRules-year\":\"2015\"," +
+            "\"patientNino\":\"AA370773A\"," +
+            "\"otherDiagnoses\":\"Mild allergies to dub step\"," +
+            "\"diagnosisAware\":\"Yes\"," +
+            "\"patientAware\":\"Yes\"," +
+            "\"clinicalFeatures\":\"Mr Coupe's clinical features\"," +
+            "\"treatment\":\"Beer, loud music, fluffy kittens\"," +
+            "\"declaration\":\"General Practitioner\"," +
+            "\"gmcNumber\":\"1234567\"," +
+            "\"gpName\":\"Dr Hugo Bosh\"," +
+            "\"gpAddress\":\"The Surgery\\nSheffield\"," +
+            "\"gpPostcode\":\"S1 1AA\"," +
+            "\"gpPhone\":\"0114 2588520\"" +
+            "}";
+
+    private final CountingInputHelper inputHelper = new CountingInputHelper();
+
+    @Test
+    public void everyFieldIsCleanedExactlyOnceForAFullValidation() throws InvalidJsonException {
+        FormFields fields = new StreamingFormReader(inputHelper).read(GP_FORM);
+        ValidationPlan.defaultPlan().apply(fields, new DSForm());
+
+        assertThat("one clean per field in the payload", inputHelper.cleaned.size(), is(25));
+        assertThat(inputHelper.cleaned.get(24), is("1234567"));
+    }
+
+    @Test
+    public void repeatedReadsDoNotCleanAgain() throws InvalidJsonException {
+        FormFields fields = new StreamingFormReader(inputHelper).read("{\"gmcNumber\":\"1234567\",\"diagnosis\":\"Extreme grumpiness\"}");
+        for (int i = 0; i < 3; i++) {
+            fields.mandatory(Ds1500Field.GMC_NUMBER);
+            fields.mandatory(Ds1500Field.DIAGNOSIS);
+            fields.optional(Ds1500Field.PATIENT_NINO);
+        }
+
+        assertThat(inputHelper.cleaned.size(), is(2));
+    }
+
+    @Test
+    public void formDatesAreParsedOnceAndKeptAsEntered() throws InvalidJsonException {
+        FormFields fields = new StreamingFormReader(inputHelper).read(GP_FORM);
+
+        assertThat(fields.date(Ds1500Date.DATE_OF_BIRTH), is(19720215));
+        assertThat(fields.date(Ds1500Date.DIAGNOSIS), is(20150511));
+        assertThat(fields.formDate(Ds1500Date.SPECIAL_RULES), is("01/06/2015"));
+        assertThat(fields.formDate(Ds1500Date.SPECIAL_RULES), is(sameInstance(fields.formDate(Ds1500Date.SPECIAL_RULES))));
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void missingDatePartIsAMandatoryFieldError() throws InvalidJsonException {
+        new StreamingFormReader(inputHelper).read("{\"dateOfDiagnosis-day\":\"11\"}").date(Ds1500Date.DIAGNOSIS);
+    }
+
+    private static class CountingInputHelper extends InputHelper {
+        private final List<String> cleaned = new ArrayList<>();
+
+        @Override
+        public String cleanInput(String input) throws InvalidCharactersException {
+            cleaned.add(input);
+            return super.cleanInput(input);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Ticker;
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class PhoneNumberCacheTest {
+    private static final PhoneNumberUtil PHONE_UTIL = PhoneNumberUtil.getInstance();
+
+    private final ManualTicker ticker = new ManualTicker();
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final PhoneNumberCache cacheUnderTest = new PhoneNumberCache(PHONE_UTIL, 2, Duration.ofMinutes(10), ticker);
+
+    @Test
+    public void validityMatchesLibphonenumber() {
+        assertThat(cacheUnderTest.isValid("0114 2588520"), is(true));
+        assertThat(cacheUnderTest.isValid("+44 114 258 8520"), is(true));
+        assertThat(cacheUnderTest.isValid("0114 258"), is(false));
+        assertThat(cacheUnderTest.isValid("not a number"), is(false));
+    }
+
+    @Test
+    public void repeatedNumbersAreHitsEvenWhenSpacedDifferently() {
+        cacheUnderTest.registerMetrics(metrics);
+
+        cacheUnderTest.isValid("0114 2588520");
+        cacheUnderTest.isValid("01142588520");
+        cacheUnderTest.isValid(" 0114 258 8520 ");
+
+        assertThat(gauge("hits"), is(2L));
+        assertThat(gauge("misses"), is(1L));
+        assertThat(gauge("size"), is(1L));
+        assertThat(gauge("hitRate"), is(2.0 / 3.0));
+    }
+
+    @Test
+    public void entriesExpireAfterTheTtl() {
+        cacheUnderTest.registerMetrics(metrics);
+
+        cacheUnderTest.isValid("0114 2588520");
+        ticker.advance(TimeUnit.MINUTES.toNanos(9));
+        cacheUnderTest.isValid("0114 2588520");
+        ticker.advance(TimeUnit.MINUTES.toNanos(2));
+        cacheUnderTest.isValid("0114 2588520");
+
+        assertThat(gauge("hits"), is(1L));
+        assertThat(gauge("misses"), is(2L));
+    }
+
+    @Test
+    public void cacheIsBoundedToTheMaximumSize() {
+        cacheUnderTest.registerMetrics(metrics);
+
+        cacheUnderTest.isValid("0114 2588520");
+        cacheUnderTest.isValid("0114 2588521");
+        cacheUnderTest.isValid("0114 2588522");
+
+        assertThat(gauge("size"), is(2L));
+    }
+
+    @Test
+    public void normalisingNeverChangesTheAnswer() {
+        Random random = new Random(1500);
+        String alphabet = "0123456789      +()-.ext#\t";
+        for (int run = 0; run < 20000; run++) {
+            StringBuilder number = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int i = 0; i < length; i++) {
+                number.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String raw = number.toString();
+            assertThat("[" + raw + "]", libphonenumberSays(PhoneNumberCache.normalise(raw)), is(libphonenumberSays(raw)));
+        }
+    }
+
+    @Test
+    public void onlyPlainDigitRunsLoseTheirSpaces() {
+        assertThat(PhoneNumberCache.normalise(" +44 114 258 8520 "), is("+441142588520"));
+        assertThat(PhoneNumberCache.normalise("0114 258 8520 ext 12"), is("0114 258 8520 ext 12"));
+        assertThat(PhoneNumberCache.normalise("(0114) 258 8520"), is("(0114) 258 8520"));
+        assertThat(PhoneNumberCache.normalise("01142588520"), is("01142588520"));
+    }
+
+    private static boolean libphonenumberSays(String number) {
+        try {
+            return PHONE_UTIL.isValidNumber(PHONE_UTIL.parse(number, "GB"));
+        } catch (NumberParseException e) {
+            return false;
+        }
+    }
+
+    private Object gauge(String name) {
+        Gauge<?> gauge = metrics.getGauges().get(MetricRegistry.name(PhoneNumberCache.class, name));
+        return gauge.getValue();
+    }
+
+    private static class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidCharactersException;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class StreamingFormReaderTest {
+    private static final String LONG_WORD = "abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyzabcdefg";
+
+    private final StreamingFormReader readerUnderTest = new StreamingFormReader(new InputHelper());
+
+    @Test
+    public void knownFieldsAreReadAndCleaned() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.read("{\"patientName\":\"Fake Man\",\"treatment\":\"Beer & kittens\"}");
+
+        assertThat(fields.mandatory(Ds1500Field.PATIENT_NAME), is("Fake Man"));
+        assertThat(fields.mandatory(Ds1500Field.TREATMENT), is("Beer &amp; kittens"));
+        assertThat(fields.optional(Ds1500Field.PATIENT_NINO), is(nullValue()));
+    }
+
+    @Test
+    public void unknownFieldsAndNestedStructuresAreSkipped() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.read("{\"formRequester\":{\"gpName\":\"nested\",\"list\":[1,2,{\"a\":[]}]},\"gpName\":\"Dr Smith\"}");
+
+        assertThat(fields.mandatory(Ds1500Field.GP_NAME), is("Dr Smith"));
+    }
+
+    @Test
+    public void nonTextValuesAreTreatedAsMissing() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.read("{\"patientNino\":12345,\"otherDiagnoses\":null}");
+
+        assertThat(fields.optional(Ds1500Field.PATIENT_NINO), is(nullValue()));
+        assertThat(fields.optional(Ds1500Field.OTHER_DIAGNOSES), is(nullValue()));
+    }
+
+    @Test
+    public void mandatoryFieldWithNonTextValueIsRejectedWhenRead() {
+        expectRejection("{\"gpPhone\":441142588520}", "gpPhone is a mandatory field");
+    }
+
+    @Test
+    public void blankMandatoryFieldIsRejectedWhenRead() {
+        expectRejection("{\"treatment\":\"Beer\",\"diagnosis\":\"   \"}", "diagnosis is a mandatory field");
+    }
+
+    @Test
+    public void blankMandatoryFieldFilledLaterInThePayloadIsAccepted() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.read("{\"diagnosis\":\"   \",\"diagnosis\":\"Extreme grumpiness\"}");
+
+        assertThat(fields.mandatory(Ds1500Field.DIAGNOSIS), is("Extreme grumpiness"));
+    }
+
+    @Test
+    public void mandatoryFieldBlankedLaterInThePayloadIsRejected() {
+        expectRejection("{\"diagnosis\":\"Extreme grumpiness\",\"diagnosis\":\"\"}", "diagnosis is a mandatory field");
+    }
+
+    @Test
+    public void uncheckedReadLeavesBadValuesForTheRules() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.readUnchecked("{\"diagnosis\":\"   \",\"clinicalFeatures\":\"" + LONG_WORD + "\",\"gpName\":\"Dr Smith\"}");
+
+        assertThat(fields.mandatory(Ds1500Field.GP_NAME), is("Dr Smith"));
+        try {
+            fields.mandatory(Ds1500Field.DIAGNOSIS);
+            fail("blank mandatory field should be rejected when read");
+        } catch (InvalidJsonException e) {
+            assertThat(e.getMessage(), is("diagnosis is a mandatory field"));
+        }
+        try {
+            fields.mandatory(Ds1500Field.CLINICAL_FEATURES);
+            fail("over long word should be rejected when read");
+        } catch (InvalidJsonException e) {
+            assertThat(e.getCause(), instanceOf(InvalidCharactersException.class));
+        }
+    }
+
+    @Test
+    public void invalidCharactersAreRejectedBeforeTheRestOfThePayloadIsParsed() {
+        try {
+            readerUnderTest.read("{\"clinicalFeatures\":\"" + LONG_WORD + "\", this is not json");
+            fail("over long word should be rejected");
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getCause(), is(instanceOf(InvalidCharactersException.class)));
+        }
+    }
+
+    @Test
+    public void conditionalFieldsAreOnlyCheckedWhenRequested() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.read("{\"gmcNumber\":\"" + LONG_WORD + "\",\"declarationAdditionalDetail\":\"\"}");
+
+        try {
+            fields.mandatory(Ds1500Field.GMC_NUMBER);
+            fail("over long gmcNumber should be rejected when it is used");
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getCause(), is(instanceOf(InvalidCharactersException.class)));
+        }
+
+        try {
+            fields.mandatory(Ds1500Field.DECLARATION_ADDITIONAL_DETAIL);
+            fail("blank declarationAdditionalDetail should be rejected when it is used");
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getMessage(), is("declarationAdditionalDetail is a mandatory field"));
+        }
+    }
+
+    @Test
+    public void lastValueWinsForRepeatedFields() throws InvalidJsonException {
+        FormFields fields = readerUnderTest.read("{\"gpName\":\"Dr Smith\",\"gpName\":\"Dr Jones\"}");
+
+        assertThat(fields.mandatory(Ds1500Field.GP_NAME), is("Dr Jones"));
+    }
+
+    @Test
+    public void nonObjectPayloadsAreRejected() {
+        expectRejection("[{\"patientName\":\"Fake Man\"}]", "patientName is a mandatory field");
+        expectRejection("\"patientName\"", "patientName is a mandatory field");
+        expectRejection("", "patientName is a mandatory field");
+    }
+
+    @Test
+    public void nullPayloadIsRejected() {
+        expectRejection(null, "JSON payload is missing");
+    }
+
+    @Test
+    public void malformedJsonIsRejected() {
+        expectRejection("{\"messy\":\"Lionel\"", "Unexpected end-of-input");
+        expectRejection("{badJSON}", "Unexpected character");
+    }
+
+    @Test
+    public void overLongFieldIsRejectedAndCounted() {
+        InputLimits limits = new InputLimits(1024, 16, 4, 10);
+        StreamingFormReader limitedReader = new StreamingFormReader(new InputHelper(), limits);
+
+        expectRejection(limitedReader, "{\"clinicalFeatures\":\"abcdefghij abcdefghij\"}", "String value length (21) exceeds the maximum allowed (16");
+        assertThat(limits.getRejectedStructureCount(), is(1L));
+    }
+
+    @Test
+    public void deeplyNestedPayloadIsRejectedAndCounted() {
+        InputLimits limits = new InputLimits(1024, 16, 4, 10);
+        StreamingFormReader limitedReader = new StreamingFormReader(new InputHelper(), limits);
+
+        expectRejection(limitedReader, "{\"formRequester\":[[[[[]]]]]}", "Document nesting depth (5) exceeds the maximum allowed (4");
+        assertThat(limits.getRejectedStructureCount(), is(1L));
+    }
+
+    @Test
+    public void payloadWithTooManyFieldsIsRejectedAndCounted() {
+        InputLimits limits = new InputLimits(1024, 16, 4, 2);
+        StreamingFormReader limitedReader = new StreamingFormReader(new InputHelper(), limits);
+
+        expectRejection(limitedReader, "{\"a\":1,\"b\":2,\"c\":3}", "JSON payload has more than 2 fields");
+        assertThat(limits.getRejectedStructureCount(), is(1L));
+    }
+
+    @Test
+    public void payloadWithinTheLimitsIsRead() throws InvalidJsonException {
+        InputLimits limits = new InputLimits(1024, 16, 4, 2);
+        StreamingFormReader limitedReader = new StreamingFormReader(new InputHelper(), limits);
+
+        FormFields fields = limitedReader.read("{\"gpName\":\"Dr Smith\",\"formRequester\":[[[]]]}");
+
+        assertThat(fields.mandatory(Ds1500Field.GP_NAME), is("Dr Smith"));
+        assertThat(limits.getRejectedStructureCount(), is(0L));
+    }
+
+    private void expectRejection(String payload, String message) {
+        expectRejection(readerUnderTest, payload, message);
+    }
+
+    private void expectRejection(StreamingFormReader reader, String payload, String message) {
+        try {
+            reader.read(payload);
+            fail("payload should have been rejected :: " + payload);
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getMessage(), containsString(message));
+        }
+    }
+}
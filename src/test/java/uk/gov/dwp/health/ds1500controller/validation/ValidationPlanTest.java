@@ -0,0 +1,136 @@
+package uk.gov.dwp.health.ds1500controller.validation;
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import org.junit.Test;
+import uk.gov.dwp.health.ds1500controller.domain.DSForm;
+import uk.gov.dwp.health.ds1500controller.domain.exceptions.InvalidJsonException;
+import uk.gov.dwp.health.ds1500controller.utils.InputHelper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("squid:S1192") // string literals allowed
+public class ValidationPlanTest {
+    private static final String VALID_FORM = "{" +
+            "\"patientName\":\"Fake Michael Man\"," +
+            "\"patientAddress\":\"23 Fake Road\\nFake Park\\nFake\"," +
+            "\"patientPostcode\":\"S2 2RZ\"," +
+            "\"patientDateOfBirth-day\":\"15\"," +
+            "\"patientDateOfBirth-month\":\"02\"," +
+            "\"patientDateOfBirth-year\":\"1972\"," +
+            "\"diagnosis\":\"Extreme grumpiness\"," +
+            "\"dateOfDiagnosis-day\":\"11\"," +
+            "\"dateOfDiagnosis-month\":\"05\"," +
+            "\"dateOfDiagnosis-year\":\"2015\"," +
+            "\"dateOfSpecialRules-day\":\"01\"," +
+            "\"dateOfSpecialRules-month\":\"06\"," +
+            "\"dateOfSpecialRules-year\":\"2015\"," +
+            "\"patientNino\":\"AA370773A\"," +
+            "\"diagnosisAware\":\"Yes\"," +
+            "\"patientAware\":\"Yes\"," +
+            "\"clinicalFeatures\":\"Mr Coupe's clinical features\"," +
+            "\"treatment\":\"Beer\"," +
+            "\"declaration\":\"General Practitioner\"," +
+            "\"gmcNumber\":\"1234567\"," +
+            "\"gpName\":\"Dr Hugo Bosh\"," +
+            "\"gpAddress\":\"The Surgery\\nSheffield\"," +
+            "\"gpPostcode\":\"S1 1AA\"," +
+            "\"gpPhone\":\"0114 2588520\"" +
+            "}";
+
+
+    @Test
+    public void declarationDateComesFromThePlanClock() {
+        ValidationPlan plan = new ValidationPlan(Clock.fixed(Instant.parse("2021-03-04T23:30:00Z"), ZoneOffset.UTC));
+
+        assertThat(plan.declarationDate(), is("04/03/2021"));
+    }
+
+    @Test
+    public void rulesAreHeldInFormOrder() {
+        List<FormRule> rules = ValidationPlan.defaultPlan().getRules();
+
+        assertThat(rules.size(), is(18));
+        assertThat(rules.get(0), instanceOf(PatientNameRule.class));
+        assertThat(rules.get(2), instanceOf(PatientPostcodeRule.class));
+        assertThat(rules.get(6), instanceOf(NinoRule.class));
+        assertThat(rules.get(13), instanceOf(DeclarationRule.class));
+        assertThat(rules.get(17), instanceOf(PhoneNumberRule.class));
+    }
+
+    @Test
+    public void rulesRunCheapestFirstKeepingFormOrderWithinACost() {
+        List<FormRule> runOrder = ValidationPlan.defaultPlan().getRunOrder();
+
+        assertThat(runOrder.size(), is(18));
+        assertThat(runOrder.get(0), instanceOf(PatientAddressRule.class));
+        assertThat(runOrder.get(1), instanceOf(PatientPostcodeRule.class));
+        assertThat(runOrder.get(2), instanceOf(NinoRule.class));
+        assertThat(runOrder.get(9), instanceOf(DeclarationRule.class));
+        assertThat(runOrder.get(13), instanceOf(PatientNameRule.class));
+        assertThat(runOrder.get(17), instanceOf(PhoneNumberRule.class));
+        for (int i = 1; i < runOrder.size(); i++) {
+            assertThat(runOrder.get(i - 1).cost().compareTo(runOrder.get(i).cost()) <= 0, is(true));
+        }
+    }
+
+    @Test
+    public void cheapFailureSkipsTheExpensiveRulesAfterIt() throws InvalidJsonException {
+        CountingPhoneNumberCache phoneNumbers = new CountingPhoneNumberCache();
+        ValidationPlan plan = new ValidationPlan(Clock.systemDefaultZone(), phoneNumbers);
+
+        expectRejection(plan, VALID_FORM.replace("\"gpName\":\"Dr Hugo Bosh\",", ""), "gpName is a mandatory field");
+        expectRejection(plan, VALID_FORM.replace("\"1234567\"", "\"0\""), "'gmcNumber' must be a positive");
+        assertThat(phoneNumbers.lookups, is(0));
+
+        plan.apply(new StreamingFormReader(new InputHelper()).read(VALID_FORM), new DSForm());
+        assertThat(phoneNumbers.lookups, is(1));
+    }
+
+    @Test
+    public void cheapFailureStillReportsAnEarlierFormError() {
+        ValidationPlan plan = ValidationPlan.defaultPlan();
+
+        expectRejection(plan, VALID_FORM.replace("\"gpName\":\"Dr Hugo Bosh\",", "").replace("Fake Michael Man", "N0t a name"), "'patientName' contains invalid characters");
+        expectRejection(plan, VALID_FORM.replace("\"gpName\":\"Dr Hugo Bosh\",", "").replace("\"1972\"", "\"2016\""), "Date of diagnosis cannot be earlier than Patient DOB");
+        expectRejection(plan, VALID_FORM.replace("\"treatment\":\"Beer\",", "").replace("0114 2588520", "0114"), "treatment is a mandatory field");
+    }
+
+    private void expectRejection(ValidationPlan plan, String payload, String message) {
+        try {
+            plan.apply(new StreamingFormReader(new InputHelper()).read(payload), new DSForm());
+            fail("payload should be rejected");
+
+        } catch (InvalidJsonException e) {
+            assertThat(e.getMessage(), containsString(message));
+        }
+    }
+
+    private static class CountingPhoneNumberCache extends PhoneNumberCache {
+        private int lookups;
+
+        CountingPhoneNumberCache() {
+            super(PhoneNumberUtil.getInstance(), 10, Duration.ofMinutes(1));
+        }
+
+        @Override
+        public boolean isValid(String phoneNumber) {
+            lookups++;
+            return super.isValid(phoneNumber);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rulesCannotBeChangedOnceThePlanIsBuilt() {
+        ValidationPlan.defaultPlan().getRules().clear();
+    }
+}